@@ -16,11 +16,15 @@
 package com.daniel.sqlbuddy.controller;
 
 import com.daniel.sqlbuddy.logic.FileWorker;
+import com.daniel.sqlbuddy.logic.ScriptFileWorker;
+import com.daniel.sqlbuddy.model.ConnectionProperties;
 import com.daniel.sqlbuddy.model.SQLFileFilter;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JTabbedPane;
 import javax.swing.JTextPane;
 import javax.swing.SwingUtilities;
 import org.apache.logging.log4j.LogManager;
@@ -28,7 +32,8 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * Handles action events fired from the file menu of the query window. The
- * functions provided include opening and saving files.
+ * functions provided include opening and saving files and executing a file
+ * without opening it.
  *
  * @author Bryan Daniel
  */
@@ -44,23 +49,60 @@ public class FileListener implements ActionListener {
      */
     public static final String SAVE_AS_COMMAND = "Save As...";
 
+    /**
+     * The command for executing a file without opening it
+     */
+    public static final String EXECUTE_FILE_COMMAND = "Execute File...";
+
     /**
      * The input area for queries
      */
     private final JTextPane queryTextPane;
 
+    /**
+     * The database connection properties
+     */
+    private final ConnectionProperties properties;
+
+    /**
+     * The tabbed pane holding results
+     */
+    private final JTabbedPane tabbedPane;
+
+    /**
+     * The label displaying the execution status
+     */
+    private final JLabel statusLabel;
+
+    /**
+     * The listener whose cancel command stops the execution of a file
+     */
+    private final QueryListener queryListener;
+
     /**
      * The logger for this class
      */
     private Logger logger;
 
     /**
-     * This constructor sets the values for the text pane and logger.
+     * This constructor sets the values for the text pane, the connection
+     * properties, the tabbed pane, the status label, the query listener, and
+     * logger.
      *
      * @param queryTextPane the text pane
+     * @param properties the database connection properties
+     * @param tabbedPane the tabbed pane
+     * @param statusLabel the status label
+     * @param queryListener the listener whose cancel command stops the
+     * execution of a file
      */
-    public FileListener(JTextPane queryTextPane) {
+    public FileListener(JTextPane queryTextPane, ConnectionProperties properties, JTabbedPane tabbedPane,
+            JLabel statusLabel, QueryListener queryListener) {
         this.queryTextPane = queryTextPane;
+        this.properties = properties;
+        this.tabbedPane = tabbedPane;
+        this.statusLabel = statusLabel;
+        this.queryListener = queryListener;
         logger = LogManager.getLogger(FileListener.class);
     }
 
@@ -95,6 +137,17 @@ public class FileListener implements ActionListener {
                     new FileWorker(queryTextPane, SAVE_AS_COMMAND, file).execute();
                 }
                 break;
+            case EXECUTE_FILE_COMMAND:
+                fileChooser.setFileFilter(new SQLFileFilter(true));
+                int executeState = fileChooser.showOpenDialog(SwingUtilities.windowForComponent(queryTextPane));
+                if (executeState == JFileChooser.APPROVE_OPTION) {
+                    File file = fileChooser.getSelectedFile();
+                    logger.info("Executing: " + file.getName() + ".");
+                    ScriptFileWorker worker = new ScriptFileWorker(file, properties, tabbedPane, statusLabel);
+                    queryListener.setScriptFileWorker(worker);
+                    worker.execute();
+                }
+                break;
             default:
                 break;
         }
@@ -16,8 +16,10 @@
 package com.daniel.sqlbuddy.controller;
 
 import com.daniel.sqlbuddy.logic.QueryWorker;
+import com.daniel.sqlbuddy.logic.ScriptFileWorker;
 import com.daniel.sqlbuddy.model.ConnectionProperties;
 import com.daniel.sqlbuddy.ui.ConnectionSetupWindow;
+import static com.daniel.sqlbuddy.ui.QueryWindow.CANCEL_QUERY_COMMAND;
 import static com.daniel.sqlbuddy.ui.QueryWindow.CHANGE_CONNECTION_COMMAND;
 import static com.daniel.sqlbuddy.ui.QueryWindow.CLEAR_COMMAND;
 import static com.daniel.sqlbuddy.ui.QueryWindow.EXIT_COMMAND;
@@ -33,7 +35,7 @@ import javax.swing.SwingUtilities;
 /**
  * Handles action events fired from the button panel of the query window. The
  * functions provided include exiting the program, changing connection
- * configuration, clearing results, and executing queries.
+ * configuration, clearing results, and executing and cancelling queries.
  *
  * @author Bryan Daniel
  */
@@ -54,6 +56,16 @@ public class QueryListener implements ActionListener {
      */
     private final JTabbedPane tabbedPane;
 
+    /**
+     * The worker executing the most recent query, or null
+     */
+    private QueryWorker queryWorker;
+
+    /**
+     * The worker executing the most recent script file, or null
+     */
+    private ScriptFileWorker scriptFileWorker;
+
     /**
      * This constructor sets the values for the text area, the connection
      * properties, and the tabbed pane.
@@ -93,7 +105,7 @@ public class QueryListener implements ActionListener {
                 SwingUtilities.windowForComponent(queryTextPane).dispose();
                 break;
             case CLEAR_COMMAND:
-                tabbedPane.removeAll();
+                QueryWorker.clearResults(tabbedPane);
                 tabbedPane.repaint();
                 break;
             case RUN_QUERY_COMMAND:
@@ -103,12 +115,30 @@ public class QueryListener implements ActionListener {
                 } else {
                     textToExecute = queryTextPane.getText();
                 }
-                new QueryWorker(textToExecute, properties, tabbedPane)
-                        .execute();
+                queryWorker = new QueryWorker(textToExecute, properties, tabbedPane);
+                queryWorker.execute();
+                break;
+            case CANCEL_QUERY_COMMAND:
+                if (queryWorker != null && !queryWorker.isDone()) {
+                    queryWorker.cancelQuery();
+                }
+                if (scriptFileWorker != null && !scriptFileWorker.isDone()) {
+                    scriptFileWorker.cancelExecution();
+                }
                 break;
             default:
                 break;
         }
     }
 
+    /**
+     * This method sets the worker executing a script file, so the cancel
+     * command can stop it.
+     *
+     * @param scriptFileWorker the script file worker
+     */
+    public void setScriptFileWorker(ScriptFileWorker scriptFileWorker) {
+        this.scriptFileWorker = scriptFileWorker;
+    }
+
 }
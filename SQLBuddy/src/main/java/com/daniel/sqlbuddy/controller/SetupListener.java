@@ -15,28 +15,22 @@
  */
 package com.daniel.sqlbuddy.controller;
 
-import com.daniel.sqlbuddy.logic.TestQueryRunner;
+import com.daniel.sqlbuddy.logic.ConnectWorker;
 import com.daniel.sqlbuddy.logic.ConnectionTestWorker;
 import com.daniel.sqlbuddy.model.ConnectionProperties;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.BROWSE_COMMAND;
+import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.CANCEL_COMMAND;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.CONNECT_COMMAND;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.EXIT_COMMAND;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.TEST_COMMAND;
-import com.daniel.sqlbuddy.ui.QueryWindow;
-import com.daniel.sqlbuddy.ui.WindowAssembler;
-import com.daniel.sqlbuddy.ui.WindowAssemblyManufacturer;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.io.IOException;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
-import javax.swing.SwingUtilities;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -67,6 +61,11 @@ public class SetupListener implements ActionListener {
      */
     private final JTextField portTextField;
 
+    /**
+     * The input for the connection timeout
+     */
+    private final JTextField timeoutTextField;
+
     /**
      * The input for username
      */
@@ -82,6 +81,11 @@ public class SetupListener implements ActionListener {
      */
     private final JLabel resultLabel;
 
+    /**
+     * The worker validating the connection for the query window
+     */
+    private ConnectWorker connectWorker;
+
     /**
      * The logger for this class
      */
@@ -94,18 +98,19 @@ public class SetupListener implements ActionListener {
      * @param driverPathTextField the driver path input
      * @param databaseNameTextField the database name input
      * @param portTextField the port number input
+     * @param timeoutTextField the connection timeout input
      * @param usernameField the username input
      * @param passwordField the password input
      * @param resultLabel the result label
      */
     public SetupListener(JComboBox<String> databaseTypeComboBox, JTextField driverPathTextField,
-            JTextField databaseNameTextField, JTextField portTextField, JTextField usernameField,
-            JPasswordField passwordField,
-            JLabel resultLabel) {
+            JTextField databaseNameTextField, JTextField portTextField, JTextField timeoutTextField,
+            JTextField usernameField, JPasswordField passwordField, JLabel resultLabel) {
         this.databaseTypeComboBox = databaseTypeComboBox;
         this.driverPathTextField = driverPathTextField;
         this.databaseNameTextField = databaseNameTextField;
         this.portTextField = portTextField;
+        this.timeoutTextField = timeoutTextField;
         this.usernameField = usernameField;
         this.passwordField = passwordField;
         this.resultLabel = resultLabel;
@@ -147,6 +152,8 @@ public class SetupListener implements ActionListener {
                 try {
                     properties = new ConnectionProperties(databaseType, driverPath,
                             host, databaseName, port, username, password);
+                    applySettings(properties);
+                    applyTimeout(properties);
                     new ConnectionTestWorker(properties, resultLabel).execute();
                 } catch (NullPointerException | IllegalArgumentException ex1) {
                     resultLabel.setText("You must provide all connection information!");
@@ -154,6 +161,9 @@ public class SetupListener implements ActionListener {
                 }
                 break;
             case CONNECT_COMMAND:
+                if (connectWorker != null && !connectWorker.isDone()) {
+                    break;
+                }
                 host = "127.0.0.1";
                 databaseType = (String) databaseTypeComboBox.getSelectedItem();
                 driverPath = driverPathTextField.getText();
@@ -165,26 +175,10 @@ public class SetupListener implements ActionListener {
                 try {
                     properties = new ConnectionProperties(databaseType, driverPath,
                             host, databaseName, port, username, password);
-                    ExecutorService executor = Executors.newFixedThreadPool(1);
-                    Future<Boolean> future
-                            = executor.submit(new TestQueryRunner(properties));
-                    if (future.get()) {
-                        resultLabel.setText("Connection good.");
-                        resultLabel.repaint();
-                        WindowAssemblyManufacturer factory = WindowAssemblyManufacturer.getInstance();
-                        WindowAssembler assembler = factory.employWindowAssemblerForQueries(properties);
-                        QueryWindow queryWindow = (QueryWindow) assembler.assembleWindow();
-                        queryWindow.setLocationRelativeTo(null);
-                        queryWindow.setAlwaysOnTop(true);
-                        queryWindow.setVisible(true);
-                        SwingUtilities.windowForComponent(resultLabel).dispose();
-                    } else {
-                        resultLabel.setText("Connection failed!");
-                        resultLabel.repaint();
-                    }
-                } catch (InterruptedException | ExecutionException ex2) {
-                    logger.error("InterruptedException or ExecutionException occurred in actionPerformed method.", 
-                            ex2);
+                    applySettings(properties);
+                    applyTimeout(properties);
+                    connectWorker = new ConnectWorker(properties, resultLabel);
+                    connectWorker.execute();
                 } catch (NullPointerException | IllegalArgumentException ex3) {
                     logger.error("NullPointerException or IllegalArgumentException occurred in actionPerformed method.", 
                             ex3);
@@ -192,6 +186,11 @@ public class SetupListener implements ActionListener {
                     resultLabel.repaint();
                 }
                 break;
+            case CANCEL_COMMAND:
+                if (connectWorker != null && !connectWorker.isDone()) {
+                    connectWorker.cancel(true);
+                }
+                break;
             case BROWSE_COMMAND:
                 JFileChooser fileChooser = new JFileChooser();
                 int returnVal = fileChooser.showOpenDialog(null);
@@ -208,4 +207,31 @@ public class SetupListener implements ActionListener {
         }
     }
 
+    /**
+     * This method sets the connection settings of the given properties from
+     * the settings file, if there is one. A setting entered in the window
+     * replaces the one in the file.
+     *
+     * @param properties the connection properties
+     */
+    private void applySettings(ConnectionProperties properties) {
+        try {
+            properties.loadSettings(ConnectionProperties.getSettingsFile());
+        } catch (IOException ex) {
+            logger.error("IOException occurred reading the settings file.", ex);
+        }
+    }
+
+    /**
+     * This method sets the login timeout of the given properties from the
+     * timeout input if a value has been entered.
+     *
+     * @param properties the connection properties
+     */
+    private void applyTimeout(ConnectionProperties properties) {
+        String timeout = timeoutTextField.getText();
+        if (timeout != null && !timeout.trim().isEmpty()) {
+            properties.setProperty(ConnectionProperties.LOGIN_TIMEOUT, timeout.trim());
+        }
+    }
 }
@@ -15,21 +15,32 @@
  */
 package com.daniel.sqlbuddy.data;
 
+import com.daniel.sqlbuddy.model.ConnectionProperties;
 import com.daniel.sqlbuddy.util.DatabaseUtil;
-import static com.daniel.sqlbuddy.util.TextUtil.MULTILINE_COMMENT_END_CHARACTERS;
-import static com.daniel.sqlbuddy.util.TextUtil.MULTILINE_COMMENT_START_CHARACTERS;
-import static com.daniel.sqlbuddy.util.TextUtil.NEWLINE_CHARACTERS;
-import static com.daniel.sqlbuddy.util.TextUtil.SINGLE_LINE_COMMENT_CHARACTERS;
+import com.daniel.sqlbuddy.util.QueryUtil;
+import java.io.IOException;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.ListIterator;
-import java.util.Vector;
-import javax.swing.table.DefaultTableModel;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.swing.table.TableModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -40,85 +51,602 @@ import org.apache.logging.log4j.Logger;
  */
 public class BaseDataAccessor {
 
+    /**
+     * The default maximum number of statements in a batch
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * The default number of megabytes of rows a result keeps in memory
+     * before its rows are written to a temporary file
+     */
+    public static final int DEFAULT_SPILL_THRESHOLD_MEGABYTES = 64;
+
+    /**
+     * The default number of seconds a cached query result is shown instead of
+     * running the query again
+     */
+    public static final int DEFAULT_RESULT_CACHE_TTL_SECONDS = 300;
+
+    /**
+     * The message of the result added when execution is cancelled
+     */
+    public static final String CANCELLED_MESSAGE = "Query execution was cancelled.";
+
     /**
      * The logger for this class
      */
     protected Logger logger;
 
+    /**
+     * The maximum number of consecutive data manipulation statements sent in
+     * one batch, where a value of one disables batching
+     */
+    protected int batchSize;
+
+    /**
+     * The database type whose SQL rules apply
+     */
+    protected String databaseType;
+
+    /**
+     * The number of read-only statements run at once, where a value of one
+     * runs every statement in order on one connection
+     */
+    protected int parallelQueries;
+
+    /**
+     * The connection pool for the connection properties in use
+     */
+    protected ConnectionPool pool;
+
+    /**
+     * The number of result rows read from a cursor at a time
+     */
+    protected int pageSize;
+
+    /**
+     * The number of pages of result rows kept in memory for each result
+     */
+    protected int windowPages;
+
+    /**
+     * The number of seconds a statement may run, where zero means no limit
+     */
+    protected int queryTimeout;
+
+    /**
+     * The estimated number of bytes of rows a result keeps in memory before
+     * its rows are written to a temporary file, where zero means never
+     */
+    protected long spillThreshold;
+
+    /**
+     * How result rows are fetched, one of the FETCH constants of
+     * ConnectionProperties
+     */
+    protected String fetchStrategy;
+
+    /**
+     * The number of result rows fetched from the server per round trip
+     */
+    protected int fetchSize;
+
+    /**
+     * The number of bytes of rows the fetch size is adjusted to fetch per
+     * round trip, where zero keeps the fetch size fixed
+     */
+    protected long fetchTargetBytes;
+
+    /**
+     * The smallest fetch size chosen when it is adjusted
+     */
+    protected int minFetchSize;
+
+    /**
+     * The largest fetch size chosen when it is adjusted
+     */
+    protected int maxFetchSize;
+
+    /**
+     * The identity of the connection profile, used to find its cached
+     * results, or null if the profile is not known
+     */
+    protected String profile;
+
+    /**
+     * The number of bytes of query results cached for the profile, where zero
+     * means results are not cached
+     */
+    protected long resultCacheBytes;
+
+    /**
+     * The number of milliseconds a cached query result stays valid
+     */
+    protected long resultCacheTtl;
+
+    /**
+     * True once execution has been cancelled
+     */
+    protected volatile boolean cancelled;
+
+    /**
+     * The statements being executed, which are cancelled by the cancel method
+     */
+    private final Set<Statement> runningStatements;
+
+    /**
+     * The listener told of each result as it is added, or null
+     */
+    protected Consumer<Object> resultListener;
+
+    /**
+     * The leases of the connections borrowed with the borrowConnection method
+     */
+    private final Map<Connection, ConnectionLease> leases;
+
+    /**
+     * True while the statement being executed is the last of its run, as
+     * only its result may keep a cursor open on the connection
+     */
+    private boolean lastStatement;
+
     /**
      * The default constructor sets the value for the logger.
      */
     public BaseDataAccessor() {
         logger = LogManager.getLogger(BaseDataAccessor.class);
+        batchSize = DEFAULT_BATCH_SIZE;
+        parallelQueries = 1;
+        pageSize = CursorTableModel.DEFAULT_PAGE_SIZE;
+        windowPages = CursorTableModel.DEFAULT_WINDOW_PAGES;
+        spillThreshold = DEFAULT_SPILL_THRESHOLD_MEGABYTES * 1024L * 1024L;
+        fetchStrategy = ConnectionProperties.FETCH_DRIVER;
+        fetchSize = DatabaseUtil.DEFAULT_FETCH_SIZE;
+        fetchTargetBytes = FetchSizeTuner.DEFAULT_TARGET_KILOBYTES * 1024L;
+        minFetchSize = FetchSizeTuner.DEFAULT_MIN_FETCH_SIZE;
+        maxFetchSize = FetchSizeTuner.DEFAULT_MAX_FETCH_SIZE;
+        leases = Collections.synchronizedMap(new IdentityHashMap<>());
+        runningStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * This method applies the execution settings of the given connection
+     * properties. It is called before the statements are executed.
+     *
+     * @param properties the database connection properties
+     */
+    protected void configure(ConnectionProperties properties) {
+        batchSize = Math.max(1, properties.getIntProperty(ConnectionProperties.BATCH_SIZE, DEFAULT_BATCH_SIZE));
+        databaseType = properties.getProperty(ConnectionProperties.DATABASE_TYPE);
+        parallelQueries = Math.max(1, properties.getIntProperty(ConnectionProperties.PARALLEL_QUERIES, 1));
+        pool = ConnectionPoolManager.getInstance().getPool(properties);
+        pageSize = Math.max(1, properties.getIntProperty(ConnectionProperties.PAGE_SIZE,
+                CursorTableModel.DEFAULT_PAGE_SIZE));
+        windowPages = Math.max(2, properties.getIntProperty(ConnectionProperties.RESULT_WINDOW_PAGES,
+                CursorTableModel.DEFAULT_WINDOW_PAGES));
+        queryTimeout = Math.max(0, properties.getIntProperty(ConnectionProperties.QUERY_TIMEOUT, 0));
+        spillThreshold = Math.max(0, properties.getIntProperty(ConnectionProperties.SPILL_THRESHOLD,
+                DEFAULT_SPILL_THRESHOLD_MEGABYTES)) * 1024L * 1024L;
+        configureFetch(properties);
+        configureResultCache(properties);
+    }
+
+    /**
+     * This method applies the result cache settings of the given connection
+     * properties.
+     *
+     * @param properties the database connection properties
+     */
+    protected void configureResultCache(ConnectionProperties properties) {
+        profile = ConnectionPoolManager.createIdentity(properties, DatabaseUtil.createQueryUrl(properties));
+        resultCacheBytes = Math.max(0, properties.getIntProperty(ConnectionProperties.RESULT_CACHE_SIZE, 0))
+                * 1024L * 1024L;
+        resultCacheTtl = Math.max(0, properties.getIntProperty(ConnectionProperties.RESULT_CACHE_TTL,
+                DEFAULT_RESULT_CACHE_TTL_SECONDS)) * 1000L;
+    }
+
+    /**
+     * This method applies the fetch strategy, the fetch size and the limits
+     * of its adjustment of the given connection properties.
+     *
+     * @param properties the database connection properties
+     */
+    protected void configureFetch(ConnectionProperties properties) {
+        databaseType = properties.getProperty(ConnectionProperties.DATABASE_TYPE);
+        fetchStrategy = DatabaseUtil.getFetchStrategy(properties);
+        fetchSize = DatabaseUtil.getFetchSize(properties);
+        fetchTargetBytes = Math.max(0, properties.getIntProperty(ConnectionProperties.FETCH_TARGET_SIZE,
+                FetchSizeTuner.DEFAULT_TARGET_KILOBYTES)) * 1024L;
+        minFetchSize = Math.max(1, properties.getIntProperty(ConnectionProperties.FETCH_SIZE_MIN,
+                FetchSizeTuner.DEFAULT_MIN_FETCH_SIZE));
+        maxFetchSize = Math.max(minFetchSize, properties.getIntProperty(ConnectionProperties.FETCH_SIZE_MAX,
+                FetchSizeTuner.DEFAULT_MAX_FETCH_SIZE));
+    }
+
+    /**
+     * This method creates the tuner adjusting the fetch size of the given
+     * result set while its first rows are read. The fetch size is left alone
+     * when it is up to the driver or the rows are streamed one at a time.
+     *
+     * @param resultSet the result set
+     * @return the fetch size tuner
+     */
+    protected FetchSizeTuner createFetchTuner(ResultSet resultSet) {
+        boolean adjusted = !ConnectionProperties.FETCH_DRIVER.equals(fetchStrategy) && !isStreamingExclusively();
+        return new FetchSizeTuner(resultSet, fetchSize, minFetchSize, maxFetchSize,
+                adjusted ? fetchTargetBytes : 0);
+    }
+
+    /**
+     * This method sets the fetch size of the given statement for the fetch
+     * strategy in use. MySQL streams rows one at a time only when given the
+     * smallest integer as its fetch size. A driver that does not take the
+     * hint keeps its default.
+     *
+     * @param statement the statement
+     */
+    protected void applyFetchStrategy(Statement statement) {
+
+        if (ConnectionProperties.FETCH_DRIVER.equals(fetchStrategy)) {
+            return;
+        }
+        try {
+            statement.setFetchSize(isStreamingExclusively() ? Integer.MIN_VALUE : fetchSize);
+        } catch (SQLException ex) {
+            logger.debug("The driver did not accept the fetch size.", ex);
+        }
+    }
+
+    /**
+     * This method determines whether a result streamed by the driver must be
+     * read to its end before anything else is run on its connection, as is
+     * the case for MySQL. Such results are not kept open as cursors.
+     *
+     * @return true if a streamed result blocks its connection, false
+     * otherwise
+     */
+    protected boolean isStreamingExclusively() {
+        return ConnectionProperties.MYSQL.equals(databaseType)
+                && ConnectionProperties.FETCH_STREAM.equals(fetchStrategy);
+    }
+
+    /**
+     * This method cancels the statements being executed on the server and
+     * stops the execution of the remaining statements. It may be called from
+     * any thread.
+     */
+    public void cancel() {
+
+        cancelled = true;
+        List<Statement> statements;
+        synchronized (runningStatements) {
+            statements = new ArrayList<>(runningStatements);
+        }
+        for (Statement statement : statements) {
+            try {
+                logger.info("Cancelling the running statement.");
+                statement.cancel();
+            } catch (SQLException ex) {
+                logger.error("SQLException occurred cancelling a statement.", ex);
+            }
+        }
+    }
+
+    /**
+     * This method applies the query timeout to the given statement and
+     * records it as running, so the cancel method can cancel it. A statement
+     * started after execution was cancelled is refused.
+     *
+     * @param statement the statement about to be executed
+     * @throws SQLException if execution was cancelled
+     */
+    protected void startStatement(Statement statement) throws SQLException {
+
+        if (queryTimeout > 0) {
+            statement.setQueryTimeout(queryTimeout);
+        }
+        synchronized (runningStatements) {
+            if (cancelled) {
+                throw new SQLException(CANCELLED_MESSAGE);
+            }
+            runningStatements.add(statement);
+        }
+    }
+
+    /**
+     * This method records that the given statement is no longer running.
+     *
+     * @param statement the executed statement
+     */
+    protected void finishStatement(Statement statement) {
+        synchronized (runningStatements) {
+            runningStatements.remove(statement);
+        }
+    }
+
+    /**
+     * This method sets the listener told of each result as soon as it is
+     * added to the result list. A CursorTableModel is passed to the listener
+     * again each time a chunk of its first rows has been read. The listener is
+     * called on the thread executing the statements.
+     *
+     * @param resultListener the result listener, or null for none
+     */
+    public void setResultListener(Consumer<Object> resultListener) {
+        this.resultListener = resultListener;
+    }
+
+    /**
+     * This method adds the given result to the given result list and passes
+     * it to the result listener. Results of parallel reads are passed to the
+     * listener when they are collected in script order.
+     *
+     * @param result the result
+     * @param allResults the result list
+     */
+    protected void addResult(Object result, ArrayList<Object> allResults) {
+        allResults.add(result);
+        if (resultListener != null && !(allResults instanceof PendingResults)) {
+            resultListener.accept(result);
+        }
+    }
+
+    /**
+     * This method borrows a connection from the pool under a lease, so the
+     * results of read-only statements run on it can keep their cursors open
+     * after the statements are executed. The connection must be given back
+     * with the releaseConnection method.
+     *
+     * @return the database connection
+     * @throws SQLException if a connection cannot be provided
+     */
+    protected Connection borrowConnection() throws SQLException {
+        Connection connection = pool.borrowConnection();
+        leases.put(connection, new ConnectionLease(pool, connection));
+        return connection;
+    }
+
+    /**
+     * This method gives back a connection borrowed with the borrowConnection
+     * method. It is returned to the pool once no result holds a cursor open on
+     * it.
+     *
+     * @param connection the database connection
+     */
+    protected void releaseConnection(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        ConnectionLease lease = leases.remove(connection);
+        if (lease != null) {
+            lease.release();
+        } else {
+            pool.releaseConnection(connection);
+        }
     }
 
     /**
-     * This method collects the sections of the given query string not part of
-     * multiple-line comments. The collected sections are passed to the
-     * executeStatements method.
+     * This method finds the statements in the given query string in a single
+     * pass with a StatementLexer, which skips the comments and ignores the
+     * delimiters inside quoted text. The lexer runs on its own thread and
+     * passes the statements through a bounded queue to the executeStatements
+     * method, so the first statement is executed while the rest of the text is
+     * still being read. The statement offsets of a completely read script are
+     * kept in the ParsedScriptCache, so an unchanged script run again is split
+     * without lexing.
      *
      * @param connection the connection
      * @param queryString the query string
+     * @param databaseType the database type whose SQL rules apply
      * @param allResults the result list
      * @throws SQLException
      */
-    protected void findExecutableStatements(Connection connection, String queryString, ArrayList<Object> allResults) throws SQLException {
-        while (queryString.length() > 0) {
-            if (queryString.contains(MULTILINE_COMMENT_START_CHARACTERS)) {
-                if (queryString.contains(MULTILINE_COMMENT_END_CHARACTERS)
-                        && queryString.indexOf(MULTILINE_COMMENT_END_CHARACTERS)
-                        < queryString.length() - MULTILINE_COMMENT_END_CHARACTERS.length()) {
-                    queryString = queryString.substring(0, queryString.indexOf(MULTILINE_COMMENT_START_CHARACTERS))
-                            + queryString.substring(queryString.indexOf(MULTILINE_COMMENT_END_CHARACTERS)
-                                    + MULTILINE_COMMENT_END_CHARACTERS.length());
+    protected void findExecutableStatements(Connection connection, String queryString, String databaseType,
+            ArrayList<Object> allResults) throws SQLException {
+
+        ParsedScriptCache cache = ParsedScriptCache.getInstance();
+        int[] cachedOffsets = cache.getStatementOffsets(queryString, databaseType);
+        StatementQueue statements;
+        if (cachedOffsets != null) {
+            logger.debug("Using the cached statement offsets of an unchanged script.");
+            statements = produceStatements((StatementQueue queue) -> {
+                for (int i = 0; i < cachedOffsets.length; i += 2) {
+                    if (!queue.put(queryString.substring(cachedOffsets[i], cachedOffsets[i + 1]))) {
+                        return;
+                    }
+                }
+            });
+        } else {
+            statements = produceStatements((StatementQueue queue) -> {
+                StatementLexer lexer = new StatementLexer(queryString, databaseType);
+                int[] offsets = new int[64];
+                int count = 0;
+                while (lexer.next()) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = lexer.getStart();
+                    offsets[count++] = lexer.getEnd();
+                    if (!queue.put(lexer.getStatement())) {
+                        return;
+                    }
+                }
+                cache.putStatementOffsets(queryString, databaseType, Arrays.copyOf(offsets, count));
+            });
+        }
+        executeStatements(connection, statements, allResults);
+    }
+
+    /**
+     * This method starts the given producer on its own thread and returns the
+     * queue it fills. The queue is closed however the producer finishes, and
+     * any exception or error thrown by the producer is recorded in the queue,
+     * so the consumer reports it instead of waiting for more statements.
+     *
+     * @param producer the statement producer
+     * @return the statement queue
+     */
+    protected StatementQueue produceStatements(StatementProducer producer) {
+
+        StatementQueue statements = new StatementQueue();
+        Thread thread = new Thread(() -> {
+            try {
+                producer.produce(statements);
+            } catch (InterruptedException ex) {
+                statements.fail(ex);
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException | Error ex) {
+                statements.fail(ex);
+                logger.error("Exception occurred while reading statements.", ex);
+            } finally {
+                statements.close();
+            }
+        }, "statement-producer");
+        thread.setDaemon(true);
+        thread.start();
+        return statements;
+    }
+
+    /**
+     * This method takes each statement from the given queue as it becomes
+     * available and executes it. Runs of consecutive data manipulation
+     * statements are collected and sent with the executeBatch method, up to
+     * the batch size at a time. When parallel queries are enabled, read-only
+     * statements are run on other pooled connections while the script is
+     * read. Any other statement waits for them to finish, so writes stay in
+     * script order, and results are added in script order. Statements that
+     * may change the session, such as SET or USE, end parallel execution for
+     * the rest of the script. Each statement is taken before the one ahead
+     * of it is executed, so only the last statement may leave a cursor open on
+     * the connection, and no later statement runs on it while the cursor is
+     * read. The producer is stopped when execution stops.
+     *
+     * @param connection the database connection
+     * @param statements the statement queue
+     * @param allResults the result list
+     * @throws SQLException
+     */
+    protected void executeStatements(Connection connection, StatementQueue statements, ArrayList<Object> allResults) throws SQLException {
+
+        List<String> batch = new ArrayList<>();
+        ParallelReads parallelReads = null;
+        if (parallelQueries > 1 && pool != null && pool.getMaxSize() > 1 && connection.getAutoCommit()) {
+            parallelReads = new ParallelReads(Math.min(parallelQueries, pool.getMaxSize() - 1));
+        }
+        try {
+            String statement = statements.take();
+            while (statement != null) {
+                String nextStatement = statements.take();
+                lastStatement = nextStatement == null;
+                if (cancelled) {
+                    throw new SQLException(CANCELLED_MESSAGE);
+                }
+                if (parallelReads != null && QueryUtil.isReadOnlyStatement(statement)) {
+                    executeBatch(connection, batch, allResults);
+                    parallelReads.submit(statement);
+                    parallelReads.collect(allResults, false);
+                    statement = nextStatement;
+                    continue;
+                }
+                if (parallelReads != null) {
+                    parallelReads.collect(allResults, true);
+                    if (!QueryUtil.isDataManipulationStatement(statement)) {
+                        parallelReads.shutdown();
+                        parallelReads = null;
+                    }
+                }
+                if (batchSize > 1 && QueryUtil.isBatchableStatement(statement)) {
+                    batch.add(statement);
+                    if (batch.size() >= batchSize) {
+                        executeBatch(connection, batch, allResults);
+                    }
                 } else {
-                    queryString = queryString.substring(0, queryString.indexOf(MULTILINE_COMMENT_START_CHARACTERS));
+                    executeBatch(connection, batch, allResults);
+                    executeStatement(connection, statement, allResults);
+                    statementsExecuted(1);
                 }
-            } else {
-                executeStatements(connection, queryString, allResults);
-                queryString = "";
+                statement = nextStatement;
+            }
+            lastStatement = false;
+            executeBatch(connection, batch, allResults);
+            if (parallelReads != null) {
+                parallelReads.collect(allResults, true);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Statement execution was interrupted.", ex);
+        } catch (SQLException ex) {
+            if (cancelled) {
+                throw new SQLException(CANCELLED_MESSAGE, ex);
+            }
+            throw ex;
+        } finally {
+            lastStatement = false;
+            statements.cancel();
+            if (parallelReads != null) {
+                parallelReads.shutdown();
             }
         }
+        if (statements.getFailure() != null) {
+            throw new SQLException("The statements could not be read: "
+                    + statements.getFailure().getMessage(), statements.getFailure());
+        }
     }
 
     /**
-     * This method splits the given query string into multiple possible
-     * statements and executes each statement using the executeStatement method.
+     * This method sends the given statements to the database in one batch and
+     * adds the update count of each statement to the given result list. A
+     * single statement is sent with the executeStatement method instead. The
+     * list is cleared once the statements are sent. When a statement fails,
+     * the counts of the statements before it are reported first.
      *
      * @param connection the database connection
-     * @param queryString the query string
+     * @param batch the data manipulation statements
      * @param allResults the result list
      * @throws SQLException
      */
-    protected void executeStatements(Connection connection, String queryString, ArrayList<Object> allResults) throws SQLException {
+    protected void executeBatch(Connection connection, List<String> batch, ArrayList<Object> allResults) throws SQLException {
 
-        ArrayList<String> lines = new ArrayList<>(Arrays.asList(queryString.split(NEWLINE_CHARACTERS)));
-        for (ListIterator<String> iterator = lines.listIterator(); iterator.hasNext();) {
-            String line = iterator.next();
-            if (line.startsWith(SINGLE_LINE_COMMENT_CHARACTERS)) {
-                iterator.remove();
-            } else if (line.contains("--")) {
-                iterator.remove();
-                iterator.add(line.substring(0, line.indexOf(SINGLE_LINE_COMMENT_CHARACTERS)));
-            }
+        if (batch.isEmpty()) {
+            return;
         }
-        StringBuilder unCommentedLines = new StringBuilder();
-        for (String line : lines) {
-            if (unCommentedLines.length() > 0) {
-                unCommentedLines.append(" ");
-            }
-            unCommentedLines.append(line);
+        if (batch.size() == 1) {
+            executeStatement(connection, batch.get(0), allResults);
+            batch.clear();
+            statementsExecuted(1);
+            return;
         }
-        ArrayList<String> statements = new ArrayList<>(Arrays.asList(unCommentedLines.toString().split(";")));
+        if (profile != null) {
+            ResultCache.getInstance().invalidate(profile);
+        }
+        Statement query = connection.createStatement();
+        logger.info("Executing batch of " + batch.size() + " statements.");
 
-        for (String statement : statements) {
-            executeStatement(connection, statement, allResults);
+        try {
+            for (String statement : batch) {
+                query.addBatch(statement);
+            }
+            startStatement(query);
+            reportBatchCounts(query.executeBatch(), allResults);
+        } catch (BatchUpdateException ex) {
+            reportBatchCounts(ex.getUpdateCounts(), allResults);
+            throw ex;
+        } finally {
+            finishStatement(query);
+            batch.clear();
+            DatabaseUtil.closeStatement(query);
         }
     }
 
     /**
      * This method executes a single statement and adds results to the given
-     * result list.
+     * result list. When a statement cache is in use, the statement is
+     * normalized and run as a cached prepared statement if possible. When the
+     * result cache is on, a query whose result is cached is not run, and the
+     * cached result is added instead. A statement that may write data drops
+     * the cached results of the profile before it runs. A statement that may
+     * change the session keeps the connection from going back to the pool.
      *
      * @param connection the database connection
      * @param queryString the query string to execute
@@ -127,44 +655,438 @@ public class BaseDataAccessor {
      */
     protected void executeStatement(Connection connection, String queryString, ArrayList<Object> allResults) throws SQLException {
 
-        ResultSet resultSet = null;
+        if (pool != null && QueryUtil.isSessionStatement(queryString)) {
+            pool.markSessionChanged(connection);
+        }
+        ResultCache.Key cacheKey = null;
+        if (profile != null) {
+            if (!QueryUtil.isReadOnlyStatement(queryString)) {
+                ResultCache.getInstance().invalidate(profile);
+            } else if (resultCacheBytes > 0) {
+                cacheKey = ResultCache.createKey(profile, queryString, databaseType);
+                ResultTableModel cached = cacheKey == null ? null
+                        : ResultCache.getInstance().getResult(cacheKey, resultCacheTtl);
+                if (cached != null) {
+                    logger.info("Showing cached result of query: " + queryString);
+                    addResult(cached, allResults);
+                    return;
+                }
+            }
+        }
+        PreparedStatementCache statementCache = pool == null ? null : pool.getStatementCache(connection);
+        if (statementCache != null) {
+            StatementFingerprint fingerprint = StatementFingerprint.create(queryString, databaseType);
+            if (fingerprint != null && fingerprint.isSingleStatement()
+                    && !statementCache.isRejected(fingerprint.getText())
+                    && executePrepared(connection, queryString, statementCache, fingerprint, cacheKey, allResults)) {
+                return;
+            }
+        }
         Statement query = connection.createStatement();
+        applyFetchStrategy(query);
         logger.info("Executing query: " + queryString);
+        boolean retained = false;
+
+        try {
+            startStatement(query);
+            // true indicates the first result is a result set
+            retained = collectResults(connection, queryString, query, query.execute(queryString), cacheKey,
+                    allResults);
+        } finally {
+            finishStatement(query);
+            if (!retained) {
+                DatabaseUtil.closeStatement(query);
+            }
+        }
+    }
+
+    /**
+     * This method runs the given normalized statement as a prepared statement
+     * from the statement cache, binding the lifted literals as parameters. A
+     * statement the database will not prepare or run with parameters is
+     * rejected from the cache so it is run as written, unless it was cancelled
+     * or timed out. A statement whose result keeps its cursor open is taken
+     * out of the cache and left to the result, so a later query of the same
+     * shape cannot run it again, and eviction cannot close it, under the
+     * open cursor.
+     *
+     * @param connection the database connection
+     * @param queryString the statement as written
+     * @param statementCache the statement cache of the connection
+     * @param fingerprint the normalized statement
+     * @param cacheKey the key the result is cached under, or null if it is
+     * not cached
+     * @param allResults the result list
+     * @return true if the statement was run, false if it must be run as
+     * written
+     * @throws SQLException if the results cannot be read
+     */
+    private boolean executePrepared(Connection connection, String queryString, PreparedStatementCache statementCache,
+            StatementFingerprint fingerprint, ResultCache.Key cacheKey, ArrayList<Object> allResults)
+            throws SQLException {
 
-        // true indicates the first result is a result set
-        boolean moreResults = query.execute(queryString);
+        PreparedStatement query;
+        boolean resultSetFirst;
+        logger.info("Executing prepared query: " + fingerprint.getText());
+        try {
+            query = statementCache.getStatement(fingerprint.getText());
+            applyFetchStrategy(query);
+            List<Object> parameters = fingerprint.getParameters();
+            for (int index = 0; index < parameters.size(); index++) {
+                query.setObject(index + 1, parameters.get(index));
+            }
+        } catch (SQLException ex) {
+            logger.info("The statement could not be prepared. Running it as written.", ex);
+            statementCache.reject(fingerprint.getText());
+            return false;
+        }
+        startStatement(query);
+        try {
+            try {
+                resultSetFirst = query.execute();
+            } catch (SQLException ex) {
+                if (cancelled || ex instanceof SQLTimeoutException) {
+                    throw ex;
+                }
+                logger.info("The statement could not be run with parameters. Running it as written.", ex);
+                statementCache.reject(fingerprint.getText());
+                return false;
+            }
+            if (collectResults(connection, queryString, query, resultSetFirst, cacheKey, allResults)) {
+                statementCache.detachStatement(fingerprint.getText(), query);
+            }
+        } finally {
+            finishStatement(query);
+        }
+        return true;
+    }
+
+    /**
+     * This method reads every result of an executed statement, adding the
+     * result sets and update counts to the given result list. The result of a
+     * read-only statement run on a leased connection is added as a
+     * CursorTableModel, which reads its rows as they are shown and may keep
+     * the statement open, unless the driver streams it in a way that blocks
+     * the connection, the result is to be cached, the statement may return
+     * further results, or another statement of the run follows it on the
+     * connection. Other result sets are
+     * read to their end. A single result set that fits in memory is put in
+     * the result cache when a cache key is given.
+     *
+     * @param connection the database connection
+     * @param queryString the executed query string
+     * @param query the executed statement
+     * @param resultSetFirst true if the first result is a result set
+     * @param cacheKey the key the result is cached under, or null if it is
+     * not cached
+     * @param allResults the result list
+     * @return true if a result took over the statement, which must then not
+     * be closed
+     * @throws SQLException
+     */
+    protected boolean collectResults(Connection connection, String queryString, Statement query,
+            boolean resultSetFirst, ResultCache.Key cacheKey, ArrayList<Object> allResults)
+            throws SQLException {
+
+        ConnectionLease lease = leases.get(connection);
+        if (resultSetFirst && lease != null && lastStatement && cacheKey == null && !isStreamingExclusively()
+                && QueryUtil.isReadOnlyStatement(queryString) && QueryUtil.isSingleQuery(queryString)) {
+            ResultSet cursor = query.getResultSet();
+            CursorTableModel model = new CursorTableModel(lease, queryString, query, cursor, pageSize, windowPages,
+                    spillThreshold > 0);
+            addResult(model, allResults);
+            model.readFirstPage(resultListener == null ? null : () -> resultListener.accept(model),
+                    createFetchTuner(cursor));
+            return true;
+        }
+
+        boolean moreResults = resultSetFirst;
         int updateCount = query.getUpdateCount();
+        int resultCount = 0;
+        TableModel lastModel = null;
         while (updateCount != -1 || moreResults) {
 
             if (moreResults) {
-                resultSet = query.getResultSet();
-                ResultSetMetaData metaData = resultSet.getMetaData();
-
-                // names of columns
-                Vector<String> columnNames = new Vector<>();
-                int columnCount = metaData.getColumnCount();
-                for (int column = 1; column <= columnCount; column++) {
-                    columnNames.add(metaData.getColumnName(column));
+                ResultSet resultSet = query.getResultSet();
+                try {
+                    lastModel = readResultSet(resultSet);
+                    addResult(lastModel, allResults);
+                } finally {
+                    DatabaseUtil.closeResultSet(resultSet);
                 }
-
-                // data of the table
-                Vector<Vector<Object>> data = new Vector<>();
-                while (resultSet.next()) {
-                    Vector<Object> vector = new Vector<Object>();
-                    for (int columnIndex = 1; columnIndex <= columnCount; columnIndex++) {
-                        vector.add(resultSet.getObject(columnIndex));
-                    }
-                    data.add(vector);
-                }
-                allResults.add(new DefaultTableModel(data, columnNames));
+                resultCount++;
             }
             if (updateCount != -1) {
-                allResults.add("Total records updated: " + updateCount);
+                addUpdateCount(updateCount, allResults);
+                resultCount++;
             }
             moreResults = query.getMoreResults();
             updateCount = query.getUpdateCount();
         }
-        DatabaseUtil.closeResultSet(resultSet);
-        DatabaseUtil.closeStatement(query);
+        if (cacheKey != null && resultCount == 1 && lastModel instanceof ResultTableModel) {
+            ResultCache.getInstance().putResult(cacheKey, ((ResultTableModel) lastModel).getTable(),
+                    resultCacheBytes);
+        }
+        return false;
+    }
+
+    /**
+     * This method reads every row of the given result set into a table model.
+     * The rows are kept in memory while their estimated size is within the
+     * spill threshold. Once it is passed, the rows are written a page at a
+     * time to a temporary file, and the model reads them back as they are
+     * shown.
+     *
+     * @param resultSet the result set
+     * @return the table model holding the rows
+     * @throws SQLException if the rows cannot be read or written
+     */
+    protected TableModel readResultSet(ResultSet resultSet) throws SQLException {
+
+        ResultTable table = ResultTable.create(resultSet.getMetaData(), pageSize);
+        FetchSizeTuner tuner = createFetchTuner(resultSet);
+        ResultSpill spill = null;
+        int spilledRowCount = 0;
+        int checkRowCount = pageSize;
+        try {
+            while (tuner.next()) {
+                table.addRow(resultSet);
+                tuner.rowRead(table);
+                if (spill != null) {
+                    if (table.getRowCount() == pageSize) {
+                        spill.writePage(spilledRowCount / pageSize, table, 0, pageSize);
+                        spilledRowCount += pageSize;
+                        table = new ResultTable(table.getColumnNames(), table.getColumnTypes(), pageSize);
+                    }
+                } else if (spillThreshold > 0 && table.getRowCount() == checkRowCount) {
+                    long bytes = table.estimateBytes();
+                    if (bytes > spillThreshold) {
+                        spill = new ResultSpill(table.getColumnNames(), table.getColumnTypes());
+                        for (int first = 0; first < table.getRowCount(); first += pageSize) {
+                            spill.writePage(first / pageSize, table, first, pageSize);
+                        }
+                        spilledRowCount = table.getRowCount();
+                        table = new ResultTable(table.getColumnNames(), table.getColumnTypes(), pageSize);
+                    } else {
+                        checkRowCount = nextSpillCheck(table.getRowCount(), bytes);
+                    }
+                }
+            }
+            if (spill == null) {
+                return new ResultTableModel(table);
+            }
+            if (table.getRowCount() > 0) {
+                spill.writePage(spilledRowCount / pageSize, table, 0, table.getRowCount());
+            }
+            return new SpilledTableModel(spill, table.getColumnNames(),
+                    spilledRowCount + table.getRowCount(), pageSize, windowPages);
+        } catch (IOException ex) {
+            if (spill != null) {
+                spill.close();
+            }
+            throw new SQLException("The result rows could not be written to a temporary file.", ex);
+        } catch (SQLException | RuntimeException ex) {
+            if (spill != null) {
+                spill.close();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * This method chooses the row count at which the size of a result read
+     * into memory is estimated next. Estimating walks the stored values, so
+     * the next check is placed halfway to the row count the spill threshold
+     * allows at the current size per row, on a page boundary.
+     *
+     * @param rowCount the number of rows read
+     * @param bytes the estimated number of bytes of the rows read
+     * @return the row count of the next check
+     */
+    private int nextSpillCheck(int rowCount, long bytes) {
+        long allowedRowCount = (long) (rowCount * ((double) spillThreshold / Math.max(1, bytes)));
+        long step = Math.max(pageSize, (allowedRowCount - rowCount) / 2);
+        long next = (rowCount + step + pageSize - 1) / pageSize * pageSize;
+        return (int) Math.min(next, Integer.MAX_VALUE / pageSize * pageSize);
+    }
+
+    /**
+     * This method adds the hit and miss counts of the statement cache of the
+     * given connection to the given result list.
+     *
+     * @param connection the database connection
+     * @param allResults the result list
+     */
+    protected void addStatementCacheReport(Connection connection, ArrayList<Object> allResults) {
+        PreparedStatementCache statementCache = pool == null ? null : pool.getStatementCache(connection);
+        if (statementCache != null) {
+            addResult(String.format("Prepared statement cache: %d hits, %d misses (%.0f%% hit ratio)",
+                    statementCache.getHitCount(), statementCache.getMissCount(),
+                    statementCache.getHitRatio() * 100), allResults);
+        }
+    }
+
+    /**
+     * This method adds the update counts returned for a batch to the given
+     * result list, stopping at the first statement that failed.
+     *
+     * @param updateCounts the update counts
+     * @param allResults the result list
+     */
+    private void reportBatchCounts(int[] updateCounts, ArrayList<Object> allResults) {
+        int executed = 0;
+        if (updateCounts != null) {
+            for (int updateCount : updateCounts) {
+                if (updateCount == Statement.EXECUTE_FAILED) {
+                    break;
+                }
+                addUpdateCount(updateCount, allResults);
+                executed++;
+            }
+        }
+        statementsExecuted(executed);
+    }
+
+    /**
+     * This method is called after statements have been executed successfully.
+     * Subclasses may override it to track the progress of the execution.
+     *
+     * @param count the number of statements executed
+     */
+    protected void statementsExecuted(int count) {
+    }
+
+    /**
+     * This method adds the update count of an executed statement to the given
+     * result list. Batched statements may report SUCCESS_NO_INFO when the
+     * driver does not return their counts.
+     *
+     * @param updateCount the number of records updated
+     * @param allResults the result list
+     */
+    protected void addUpdateCount(int updateCount, ArrayList<Object> allResults) {
+        addResult("Total records updated: "
+                + (updateCount == Statement.SUCCESS_NO_INFO ? "unknown" : String.valueOf(updateCount)), allResults);
+    }
+
+    /**
+     * This interface is implemented by the sources of statements passed to
+     * the produceStatements method.
+     */
+    protected interface StatementProducer {
+
+        /**
+         * This method puts statements into the given queue, stopping when the
+         * queue refuses a statement.
+         *
+         * @param statements the statement queue
+         * @throws IOException if the statements cannot be read
+         * @throws InterruptedException if the producer is interrupted
+         */
+        void produce(StatementQueue statements) throws IOException, InterruptedException;
+    }
+
+    /**
+     * This list holds the results of a statement run by parallel reads until
+     * they are collected in script order.
+     */
+    private static class PendingResults extends ArrayList<Object> {
+
+        /**
+         * Serial version UID
+         */
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * This class runs read-only statements on pooled connections other than
+     * the one executing the script, with a bounded number running at once.
+     * The results are handed back in the order the statements were submitted.
+     */
+    private class ParallelReads {
+
+        /**
+         * The executor running the statements
+         */
+        private final ExecutorService executor;
+
+        /**
+         * The results of the submitted statements in submission order
+         */
+        private final Deque<Future<ArrayList<Object>>> pending;
+
+        /**
+         * This constructor creates an executor running up to the given number
+         * of statements at once.
+         *
+         * @param parallelism the number of statements run at once
+         */
+        private ParallelReads(int parallelism) {
+            executor = Executors.newFixedThreadPool(parallelism, (Runnable runnable) -> {
+                Thread thread = new Thread(runnable, "parallel-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+            pending = new ArrayDeque<>();
+        }
+
+        /**
+         * This method starts the given statement on a connection borrowed from
+         * the pool.
+         *
+         * @param statement the read-only statement
+         */
+        private void submit(String statement) {
+            pending.add(executor.submit(() -> {
+                ArrayList<Object> results = new PendingResults();
+                Connection connection = pool.borrowConnection();
+                try {
+                    executeStatement(connection, statement, results);
+                } finally {
+                    pool.releaseConnection(connection);
+                }
+                return results;
+            }));
+        }
+
+        /**
+         * This method adds the results of the finished statements at the head
+         * of the submission order to the given result list. When waiting, every
+         * submitted statement is collected. A failed statement stops the
+         * collection and its exception is thrown.
+         *
+         * @param allResults the result list
+         * @param wait true to wait for every submitted statement
+         * @throws SQLException if a statement failed
+         * @throws InterruptedException if the wait is interrupted
+         */
+        private void collect(ArrayList<Object> allResults, boolean wait) throws SQLException, InterruptedException {
+            while (!pending.isEmpty() && (wait || pending.peek().isDone())) {
+                try {
+                    for (Object result : pending.poll().get()) {
+                        addResult(result, allResults);
+                    }
+                    statementsExecuted(1);
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof SQLException) {
+                        throw (SQLException) ex.getCause();
+                    }
+                    throw new SQLException("The statement could not be run.", ex.getCause());
+                }
+            }
+        }
+
+        /**
+         * This method stops the executor. Statements that have not started are
+         * cancelled, and running statements finish and release their
+         * connections.
+         */
+        private void shutdown() {
+            for (Future<ArrayList<Object>> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+            executor.shutdown();
+        }
     }
 }
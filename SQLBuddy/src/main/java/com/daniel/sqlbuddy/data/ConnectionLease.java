@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.sql.Connection;
+
+/**
+ * This class shares a borrowed pooled connection between the data accessor
+ * and the result models that keep cursors open on it. Each holder acquires
+ * the lease and releases it when done, and the connection is returned to the
+ * pool when the last holder releases it.
+ *
+ * @author Bryan Daniel
+ */
+public class ConnectionLease {
+
+    /**
+     * The pool the connection was borrowed from
+     */
+    private final ConnectionPool pool;
+
+    /**
+     * The borrowed connection
+     */
+    private final Connection connection;
+
+    /**
+     * The number of holders that have not released the lease
+     */
+    private int holderCount;
+
+    /**
+     * This constructor creates a lease held once for the given connection.
+     *
+     * @param pool the pool the connection was borrowed from
+     * @param connection the borrowed connection
+     */
+    public ConnectionLease(ConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+        holderCount = 1;
+    }
+
+    /**
+     * This method adds a holder to the lease.
+     *
+     * @throws IllegalStateException if the connection was already returned
+     */
+    public synchronized void acquire() {
+        if (holderCount == 0) {
+            throw new IllegalStateException("The connection has already been returned to the pool.");
+        }
+        holderCount++;
+    }
+
+    /**
+     * This method removes a holder from the lease, returning the connection to
+     * the pool if no holders remain.
+     */
+    public void release() {
+        synchronized (this) {
+            if (holderCount == 0 || --holderCount > 0) {
+                return;
+            }
+        }
+        pool.releaseConnection(connection);
+    }
+
+    /**
+     * Get the value of connection
+     *
+     * @return the value of connection
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+}
@@ -0,0 +1,874 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import com.daniel.sqlbuddy.util.DatabaseUtil;
+import com.daniel.sqlbuddy.util.QueryUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class holds reusable database connections for a single connection
+ * identity. Connections are borrowed for the execution of input and released
+ * back to the pool afterward so that subsequent executions do not pay the cost
+ * of establishing a new session.
+ *
+ * @author Bryan Daniel
+ */
+public class ConnectionPool {
+
+    /**
+     * This enum indicates when a connection is validated as it is borrowed
+     */
+    public enum ValidationPolicy {
+
+        /**
+         * Every borrowed connection is validated
+         */
+        ALWAYS,
+        /**
+         * Connections are validated only when they have been idle longer than
+         * the validation threshold
+         */
+        WHEN_IDLE,
+        /**
+         * Borrowed connections are never validated
+         */
+        NEVER
+    }
+
+    /**
+     * The default minimum number of idle connections retained by the pool
+     */
+    public static final int DEFAULT_MIN_SIZE = 1;
+
+    /**
+     * The default maximum number of connections held by the pool
+     */
+    public static final int DEFAULT_MAX_SIZE = 4;
+
+    /**
+     * The default number of seconds a connection may sit idle before eviction
+     */
+    public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 600;
+
+    /**
+     * The default number of connections opened when the pool is warmed up
+     */
+    public static final int DEFAULT_WARM_UP_SIZE = 2;
+
+    /**
+     * The default number of seconds between keep-alive checks of idle
+     * connections
+     */
+    public static final int DEFAULT_KEEP_ALIVE_INTERVAL_SECONDS = 120;
+
+    /**
+     * The number of seconds allowed for a connection validation check
+     */
+    public static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    /**
+     * The number of milliseconds a connection may sit idle before it must be
+     * validated under the WHEN_IDLE policy
+     */
+    public static final long VALIDATION_IDLE_THRESHOLD_MILLIS = 5000L;
+
+    /**
+     * The number of milliseconds to wait for a connection when the pool is
+     * exhausted
+     */
+    public static final long BORROW_TIMEOUT_MILLIS = 30000L;
+
+    /**
+     * The database connection properties
+     */
+    private final ConnectionProperties properties;
+
+    /**
+     * The database URL used to open connections
+     */
+    private final String url;
+
+    /**
+     * The minimum number of idle connections retained by the pool
+     */
+    private final int minSize;
+
+    /**
+     * The maximum number of connections held by the pool
+     */
+    private final int maxSize;
+
+    /**
+     * The number of milliseconds a connection may sit idle before eviction
+     */
+    private final long idleTimeoutMillis;
+
+    /**
+     * The number of seconds between keep-alive checks of idle connections
+     */
+    private final int keepAliveIntervalSeconds;
+
+    /**
+     * The validation policy applied when a connection is borrowed
+     */
+    private final ValidationPolicy validationPolicy;
+
+    /**
+     * The idle connections, most recently released first
+     */
+    private final Deque<IdleConnection> idleConnections;
+
+    /**
+     * The prepared statement caches of the open connections
+     */
+    private final Map<Connection, PreparedStatementCache> statementCaches;
+
+    /**
+     * The session state of each open connection as it was opened
+     */
+    private final Map<Connection, SessionState> sessionStates;
+
+    /**
+     * The number of prepared statements cached for each connection
+     */
+    private final int statementCacheSize;
+
+    /**
+     * The number of connections currently open, idle or borrowed
+     */
+    private int openCount;
+
+    /**
+     * Indicates the pool has been shut down
+     */
+    private boolean shutdown;
+
+    /**
+     * The number of keep-alive checks made on idle connections
+     */
+    private long keepAliveCount;
+
+    /**
+     * The number of dead connections found by validation or keep-alive checks
+     */
+    private long deadConnectionCount;
+
+    /**
+     * The number of connections opened to replace dead connections
+     */
+    private long reconnectCount;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * This constructor sets the connection properties and URL for the pool and
+     * reads the pool settings from the properties.
+     *
+     * @param properties the database connection properties
+     * @param url the database URL
+     */
+    public ConnectionPool(ConnectionProperties properties, String url) {
+        this.properties = properties;
+        this.url = url;
+        maxSize = Math.max(1, properties.getIntProperty(ConnectionProperties.POOL_MAX_SIZE,
+                DEFAULT_MAX_SIZE));
+        minSize = Math.min(maxSize, Math.max(0, properties.getIntProperty(ConnectionProperties.POOL_MIN_SIZE,
+                DEFAULT_MIN_SIZE)));
+        idleTimeoutMillis = 1000L * Math.max(0, properties.getIntProperty(ConnectionProperties.POOL_IDLE_TIMEOUT,
+                DEFAULT_IDLE_TIMEOUT_SECONDS));
+        keepAliveIntervalSeconds = Math.max(0, properties.getIntProperty(ConnectionProperties.KEEP_ALIVE_INTERVAL,
+                DEFAULT_KEEP_ALIVE_INTERVAL_SECONDS));
+        validationPolicy = determineValidationPolicy(properties.getProperty(ConnectionProperties.POOL_VALIDATION));
+        statementCacheSize = Math.max(0, properties.getIntProperty(ConnectionProperties.STATEMENT_CACHE_SIZE, 0));
+        idleConnections = new ArrayDeque<>();
+        statementCaches = new IdentityHashMap<>();
+        sessionStates = new IdentityHashMap<>();
+        logger = LogManager.getLogger(ConnectionPool.class);
+    }
+
+    /**
+     * This method returns a connection from the pool. An idle connection is
+     * reused when one is available and passes validation. Otherwise, a new
+     * connection is opened if the pool has not reached its maximum size. When
+     * the pool is exhausted, this method waits for a connection to be
+     * released.
+     *
+     * @return the database connection
+     * @throws SQLException if a connection cannot be provided
+     */
+    public Connection borrowConnection() throws SQLException {
+
+        long deadline = System.currentTimeMillis() + BORROW_TIMEOUT_MILLIS;
+        boolean replacingDeadConnection = false;
+        while (true) {
+            IdleConnection idleConnection = null;
+            synchronized (this) {
+                if (shutdown) {
+                    throw new SQLException("The connection pool has been shut down.");
+                }
+                if (!idleConnections.isEmpty()) {
+                    idleConnection = idleConnections.pollFirst();
+                } else if (openCount < maxSize) {
+                    openCount++;
+                } else {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out waiting for a pooled connection.");
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a pooled connection.", ex);
+                    }
+                    continue;
+                }
+            }
+            if (idleConnection == null) {
+                Connection connection = openNewConnection();
+                if (replacingDeadConnection) {
+                    synchronized (this) {
+                        reconnectCount++;
+                    }
+                    logger.info("Reconnected to replace a dead pooled connection.");
+                }
+                return connection;
+            }
+            if (isUsable(idleConnection)) {
+                return idleConnection.connection;
+            }
+            synchronized (this) {
+                deadConnectionCount++;
+            }
+            replacingDeadConnection = true;
+            discardConnection(idleConnection.connection);
+        }
+    }
+
+    /**
+     * This method returns a borrowed connection to the pool. Any uncommitted
+     * work is rolled back, as it would be if the connection were closed, and
+     * the catalog, schema, read-only flag and transaction isolation are set
+     * back to what they were when the connection was opened. Connections that
+     * are closed, cannot be reset, or ran a statement that changed their
+     * session are discarded.
+     *
+     * @param connection the borrowed connection
+     */
+    public void releaseConnection(Connection connection) {
+
+        if (connection == null) {
+            return;
+        }
+        SessionState sessionState;
+        synchronized (this) {
+            sessionState = sessionStates.get(connection);
+        }
+        boolean reusable;
+        try {
+            reusable = !connection.isClosed() && sessionState != null && !sessionState.changed;
+            if (reusable && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (reusable) {
+                sessionState.restore(connection);
+            }
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred resetting a pooled connection.", ex);
+            reusable = false;
+        }
+        synchronized (this) {
+            if (reusable && !shutdown) {
+                idleConnections.offerFirst(new IdleConnection(connection));
+                notifyAll();
+                return;
+            }
+        }
+        discardConnection(connection);
+    }
+
+    /**
+     * This method records that a statement that may change the session, such
+     * as SET or USE, has run on the given borrowed connection, so the
+     * connection is discarded instead of being reused when it is released.
+     *
+     * @param connection the borrowed connection
+     */
+    public synchronized void markSessionChanged(Connection connection) {
+        SessionState sessionState = sessionStates.get(connection);
+        if (sessionState != null) {
+            sessionState.changed = true;
+        }
+    }
+
+    /**
+     * This method opens connections until the pool holds the configured
+     * warm-up number of connections, limited by the maximum size. Each new
+     * connection runs the test query as a prepared statement to prime the
+     * driver before it is placed in the pool as idle.
+     *
+     * @return the number of connections opened
+     * @throws SQLException if a connection cannot be opened
+     */
+    public int warmUp() throws SQLException {
+
+        int warmUpSize = Math.min(maxSize, properties.getIntProperty(ConnectionProperties.POOL_WARM_UP_SIZE,
+                DEFAULT_WARM_UP_SIZE));
+        int opened = 0;
+        while (true) {
+            synchronized (this) {
+                if (shutdown || openCount >= warmUpSize) {
+                    break;
+                }
+                openCount++;
+            }
+            Connection connection = openNewConnection();
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(QueryUtil.getConnectionTestQuery(properties));
+                statement.execute();
+            } finally {
+                DatabaseUtil.closeStatement(statement);
+                releaseConnection(connection);
+            }
+            opened++;
+        }
+        return opened;
+    }
+
+    /**
+     * This method checks the idle connections that have not been checked or
+     * used within the keep-alive interval, keeping their sessions from being
+     * dropped by firewalls and load balancers. Dead connections are closed and
+     * replaced with new connections.
+     */
+    public void keepAlive() {
+
+        List<IdleConnection> checking = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            for (Iterator<IdleConnection> iterator = idleConnections.iterator(); iterator.hasNext();) {
+                IdleConnection idleConnection = iterator.next();
+                if (now - idleConnection.lastChecked >= keepAliveIntervalSeconds * 1000L) {
+                    iterator.remove();
+                    checking.add(idleConnection);
+                }
+            }
+        }
+        for (IdleConnection idleConnection : checking) {
+            boolean alive = ping(idleConnection.connection);
+            synchronized (this) {
+                keepAliveCount++;
+                if (alive && !shutdown) {
+                    idleConnection.lastChecked = System.currentTimeMillis();
+                    idleConnections.offerLast(idleConnection);
+                    notifyAll();
+                    continue;
+                }
+                if (!alive) {
+                    deadConnectionCount++;
+                }
+            }
+            discardConnection(idleConnection.connection);
+            if (!alive) {
+                replaceDeadConnection();
+            }
+        }
+    }
+
+    /**
+     * This method closes idle connections that have exceeded the idle timeout
+     * while retaining the minimum number of idle connections.
+     */
+    public void evictIdleConnections() {
+
+        List<Connection> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Iterator<IdleConnection> iterator = idleConnections.descendingIterator();
+            while (iterator.hasNext() && idleConnections.size() > minSize) {
+                IdleConnection idleConnection = iterator.next();
+                if (now - idleConnection.idleSince >= idleTimeoutMillis) {
+                    iterator.remove();
+                    evicted.add(idleConnection.connection);
+                }
+            }
+        }
+        if (!evicted.isEmpty()) {
+            logger.info("Evicting " + evicted.size() + " idle connection(s).");
+        }
+        for (Connection connection : evicted) {
+            discardConnection(connection);
+        }
+    }
+
+    /**
+     * This method returns the prepared statement cache of the given borrowed
+     * connection, creating it if necessary. The cache lives as long as the
+     * connection stays in the pool, so the statements are reused by later
+     * queries.
+     *
+     * @param connection the borrowed connection
+     * @return the statement cache, or null if statement caching is off
+     */
+    public synchronized PreparedStatementCache getStatementCache(Connection connection) {
+        if (statementCacheSize == 0) {
+            return null;
+        }
+        PreparedStatementCache statementCache = statementCaches.get(connection);
+        if (statementCache == null) {
+            statementCache = new PreparedStatementCache(connection, statementCacheSize);
+            statementCaches.put(connection, statementCache);
+        }
+        return statementCache;
+    }
+
+    /**
+     * This method shuts down the pool, closing all idle connections. Borrowed
+     * connections are closed when they are released.
+     */
+    public void shutdown() {
+
+        List<IdleConnection> closing;
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            closing = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+            notifyAll();
+        }
+        for (IdleConnection idleConnection : closing) {
+            discardConnection(idleConnection.connection);
+        }
+        logger.info("Connection pool shut down.");
+    }
+
+    /**
+     * This method determines whether the pool has been shut down.
+     *
+     * @return true if the pool has been shut down, false otherwise
+     */
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Get the value of properties
+     *
+     * @return the value of properties
+     */
+    public ConnectionProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Get the value of url
+     *
+     * @return the value of url
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * This method returns the number of connections currently open.
+     *
+     * @return the number of open connections
+     */
+    public synchronized int getOpenCount() {
+        return openCount;
+    }
+
+    /**
+     * Get the value of maxSize
+     *
+     * @return the value of maxSize
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * This method returns the number of seconds between keep-alive checks. A
+     * value of zero means keep-alive checks are disabled.
+     *
+     * @return the keep-alive interval in seconds
+     */
+    public int getKeepAliveIntervalSeconds() {
+        return keepAliveIntervalSeconds;
+    }
+
+    /**
+     * This method returns the number of keep-alive checks made.
+     *
+     * @return the keep-alive count
+     */
+    public synchronized long getKeepAliveCount() {
+        return keepAliveCount;
+    }
+
+    /**
+     * This method returns the number of dead connections found.
+     *
+     * @return the dead connection count
+     */
+    public synchronized long getDeadConnectionCount() {
+        return deadConnectionCount;
+    }
+
+    /**
+     * This method returns the number of connections opened to replace dead
+     * connections.
+     *
+     * @return the reconnect count
+     */
+    public synchronized long getReconnectCount() {
+        return reconnectCount;
+    }
+
+    /**
+     * This method returns the number of connections currently idle.
+     *
+     * @return the number of idle connections
+     */
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * This method determines whether the given idle connection may be handed
+     * out according to the validation policy.
+     *
+     * @param idleConnection the idle connection
+     * @return true if the connection is usable, false otherwise
+     */
+    private boolean isUsable(IdleConnection idleConnection) {
+
+        boolean validate;
+        switch (validationPolicy) {
+            case ALWAYS:
+                validate = true;
+                break;
+            case WHEN_IDLE:
+                validate = System.currentTimeMillis() - idleConnection.lastChecked
+                        >= VALIDATION_IDLE_THRESHOLD_MILLIS;
+                break;
+            default:
+                validate = false;
+                break;
+        }
+        if (validate) {
+            boolean alive = ping(idleConnection.connection);
+            idleConnection.lastChecked = System.currentTimeMillis();
+            return alive;
+        }
+        try {
+            return !idleConnection.connection.isClosed();
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred validating a pooled connection.", ex);
+            return false;
+        }
+    }
+
+    /**
+     * This method checks whether the given connection is alive. The driver
+     * validation check is used when supported. Otherwise, the test query for
+     * the database type is executed.
+     *
+     * @param connection the connection
+     * @return true if the connection is alive, false otherwise
+     */
+    private boolean ping(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException | AbstractMethodError ex) {
+            logger.info("The driver validation check failed. Using the test query.");
+        }
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+            statement.execute(QueryUtil.getConnectionTestQuery(properties));
+            return true;
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred running the test query on a pooled connection.", ex);
+            return false;
+        } finally {
+            DatabaseUtil.closeStatement(statement);
+        }
+    }
+
+    /**
+     * This method opens a new idle connection in place of a dead connection if
+     * the pool has room for it.
+     */
+    private void replaceDeadConnection() {
+        synchronized (this) {
+            if (shutdown || openCount >= maxSize) {
+                return;
+            }
+            openCount++;
+        }
+        try {
+            Connection connection = openNewConnection();
+            synchronized (this) {
+                reconnectCount++;
+            }
+            logger.info("Reconnected to replace a dead pooled connection.");
+            releaseConnection(connection);
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred replacing a dead pooled connection.", ex);
+        }
+    }
+
+    /**
+     * This method opens a new connection for a slot already reserved in the
+     * open count. The slot is given back if the connection cannot be opened.
+     *
+     * @return the new connection
+     * @throws SQLException if the connection cannot be opened
+     */
+    private Connection openNewConnection() throws SQLException {
+
+        boolean opened = false;
+        try {
+            Connection connection = openConnection();
+            opened = true;
+            return connection;
+        } finally {
+            if (!opened) {
+                synchronized (this) {
+                    openCount--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * This method opens a connection using the connection properties and runs
+     * the session initialization statements for the database type. The
+     * resulting session state is recorded, so it can be restored when the
+     * connection is released.
+     *
+     * @return the new connection
+     * @throws SQLException if the connection cannot be opened
+     */
+    private Connection openConnection() throws SQLException {
+
+        Connection connection = DriverRegistry.getInstance().connect(properties, url);
+        Statement statement = null;
+        try {
+            for (String sessionInitStatement : QueryUtil.getSessionInitStatements(properties)) {
+                if (statement == null) {
+                    statement = connection.createStatement();
+                }
+                statement.execute(sessionInitStatement);
+            }
+            SessionState sessionState = new SessionState(connection);
+            synchronized (this) {
+                sessionStates.put(connection, sessionState);
+            }
+        } catch (SQLException ex) {
+            DatabaseUtil.closeStatement(statement);
+            DatabaseUtil.closeConnection(connection);
+            throw ex;
+        }
+        DatabaseUtil.closeStatement(statement);
+        return connection;
+    }
+
+    /**
+     * This method closes a connection that is leaving the pool.
+     *
+     * @param connection the connection
+     */
+    private void discardConnection(Connection connection) {
+        PreparedStatementCache statementCache;
+        synchronized (this) {
+            statementCache = statementCaches.remove(connection);
+            sessionStates.remove(connection);
+        }
+        if (statementCache != null) {
+            statementCache.close();
+        }
+        DatabaseUtil.closeConnection(connection);
+        synchronized (this) {
+            openCount--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * This method determines the validation policy from the given property
+     * value, defaulting to WHEN_IDLE.
+     *
+     * @param value the property value
+     * @return the validation policy
+     */
+    private static ValidationPolicy determineValidationPolicy(String value) {
+        if (value != null) {
+            for (ValidationPolicy policy : ValidationPolicy.values()) {
+                if (policy.name().equalsIgnoreCase(value.trim())) {
+                    return policy;
+                }
+            }
+        }
+        return ValidationPolicy.WHEN_IDLE;
+    }
+
+    /**
+     * This class holds the session state of a connection that is set back
+     * when the connection is released.
+     */
+    private static class SessionState {
+
+        /**
+         * The catalog of the connection
+         */
+        private final String catalog;
+
+        /**
+         * The schema of the connection, or null if the driver does not report
+         * it
+         */
+        private final String schema;
+
+        /**
+         * The read-only flag of the connection
+         */
+        private final boolean readOnly;
+
+        /**
+         * The transaction isolation level of the connection
+         */
+        private final int transactionIsolation;
+
+        /**
+         * Indicates a statement that may change the session has run on the
+         * connection
+         */
+        private boolean changed;
+
+        /**
+         * This constructor records the current session state of the given
+         * connection.
+         *
+         * @param connection the connection
+         * @throws SQLException if the state cannot be read
+         */
+        private SessionState(Connection connection) throws SQLException {
+            catalog = connection.getCatalog();
+            schema = getSchema(connection);
+            readOnly = connection.isReadOnly();
+            transactionIsolation = connection.getTransactionIsolation();
+        }
+
+        /**
+         * This method sets back any part of the session state of the given
+         * connection that differs from the recorded state.
+         *
+         * @param connection the connection
+         * @throws SQLException if the state cannot be set
+         */
+        private void restore(Connection connection) throws SQLException {
+            if (connection.isReadOnly() != readOnly) {
+                connection.setReadOnly(readOnly);
+            }
+            if (connection.getTransactionIsolation() != transactionIsolation) {
+                connection.setTransactionIsolation(transactionIsolation);
+            }
+            if (catalog != null && !catalog.equals(connection.getCatalog())) {
+                connection.setCatalog(catalog);
+            }
+            if (schema != null && !schema.equals(getSchema(connection))) {
+                connection.setSchema(schema);
+            }
+        }
+
+        /**
+         * This method returns the schema of the given connection, or null if
+         * the driver predates the schema methods.
+         *
+         * @param connection the connection
+         * @return the schema
+         * @throws SQLException if the schema cannot be read
+         */
+        private static String getSchema(Connection connection) throws SQLException {
+            try {
+                return connection.getSchema();
+            } catch (AbstractMethodError | SQLFeatureNotSupportedException ex) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * This class pairs an idle connection with the time it was released.
+     */
+    private static class IdleConnection {
+
+        /**
+         * The idle connection
+         */
+        private final Connection connection;
+
+        /**
+         * The time in milliseconds the connection became idle
+         */
+        private final long idleSince;
+
+        /**
+         * The time in milliseconds the connection was last used or checked
+         */
+        private long lastChecked;
+
+        /**
+         * This constructor sets the connection and marks it idle as of now.
+         *
+         * @param connection the connection
+         */
+        private IdleConnection(Connection connection) {
+            this.connection = connection;
+            this.idleSince = System.currentTimeMillis();
+            this.lastChecked = idleSince;
+        }
+    }
+}
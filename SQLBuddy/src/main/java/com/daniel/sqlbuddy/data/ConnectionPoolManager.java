@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import com.daniel.sqlbuddy.util.DatabaseUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class keeps one connection pool per connection identity, made up of the
+ * database type, the database URL, and the username. The class implements the
+ * Singleton design pattern, as the pools must be shared by every query run in
+ * the program.
+ *
+ * @author Bryan Daniel
+ */
+public class ConnectionPoolManager {
+
+    /**
+     * The number of seconds between idle eviction runs
+     */
+    public static final long EVICTION_INTERVAL_SECONDS = 60L;
+
+    /**
+     * The single ConnectionPoolManager object
+     */
+    private static ConnectionPoolManager manager = null;
+
+    /**
+     * The connection pools keyed by connection identity
+     */
+    private final Map<String, ConnectionPool> pools;
+
+    /**
+     * The scheduled keep-alive tasks keyed by connection identity
+     */
+    private final Map<String, ScheduledFuture<?>> keepAliveTasks;
+
+    /**
+     * The executor running the idle eviction and keep-alive tasks
+     */
+    private final ScheduledExecutorService maintenanceExecutor;
+
+    /**
+     * Private constructor - not called publicly
+     */
+    private ConnectionPoolManager() {
+        pools = new HashMap<>();
+        keepAliveTasks = new HashMap<>();
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+            Thread thread = new Thread(runnable, "connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenanceExecutor.scheduleWithFixedDelay(this::evictIdleConnections,
+                EVICTION_INTERVAL_SECONDS, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeAllPools));
+    }
+
+    /**
+     * This method returns the single ConnectionPoolManager. If the instance of
+     * ConnectionPoolManager has not been created previously, it is created
+     * here.
+     *
+     * @return the ConnectionPoolManager object
+     */
+    public synchronized static ConnectionPoolManager getInstance() {
+        if (manager == null) {
+            manager = new ConnectionPoolManager();
+        }
+        return manager;
+    }
+
+    /**
+     * This method returns the pool used for executing queries with the given
+     * properties, creating the pool if necessary.
+     *
+     * @param properties the database connection properties
+     * @return the connection pool
+     */
+    public ConnectionPool getPool(ConnectionProperties properties) {
+        return getPool(properties, DatabaseUtil.createQueryUrl(properties));
+    }
+
+    /**
+     * This method returns the pool for the connection identity of the given
+     * properties and URL, creating the pool if necessary.
+     *
+     * @param properties the database connection properties
+     * @param url the database URL
+     * @return the connection pool
+     */
+    public synchronized ConnectionPool getPool(ConnectionProperties properties, String url) {
+        String identity = createIdentity(properties, url);
+        ConnectionPool pool = pools.get(identity);
+        if (pool == null) {
+            pool = new ConnectionPool(properties, url);
+            register(identity, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * This method creates a pool for executing queries with the given
+     * properties without adding it to the managed pools. Nothing else uses
+     * the pool until it is given to the addPool method, so its creator may
+     * shut it down at any time.
+     *
+     * @param properties the database connection properties
+     * @return the new connection pool
+     */
+    public ConnectionPool createPool(ConnectionProperties properties) {
+        return new ConnectionPool(properties, DatabaseUtil.createQueryUrl(properties));
+    }
+
+    /**
+     * This method adds a pool made by the createPool method to the managed
+     * pools. If a pool with the same connection identity is already managed,
+     * it is kept and the given pool is shut down. A pool that has been shut
+     * down is not added.
+     *
+     * @param pool the connection pool
+     * @return the managed pool for the connection identity of the given
+     * pool, or null if the given pool has been shut down
+     */
+    public ConnectionPool addPool(ConnectionPool pool) {
+        ConnectionPool managed;
+        synchronized (this) {
+            if (pool.isShutdown()) {
+                return null;
+            }
+            String identity = createIdentity(pool.getProperties(), pool.getUrl());
+            managed = pools.get(identity);
+            if (managed == null) {
+                register(identity, pool);
+                return pool;
+            }
+        }
+        pool.shutdown();
+        return managed;
+    }
+
+    /**
+     * This method adds the given pool to the managed pools under the given
+     * identity and schedules its keep-alive task.
+     *
+     * @param identity the connection identity
+     * @param pool the connection pool
+     */
+    private void register(String identity, ConnectionPool pool) {
+        pools.put(identity, pool);
+        int interval = pool.getKeepAliveIntervalSeconds();
+        if (interval > 0) {
+            keepAliveTasks.put(identity, maintenanceExecutor.scheduleWithFixedDelay(pool::keepAlive,
+                    interval, interval, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * This method shuts down and removes every pool with the connection
+     * identity of the given connection properties, whatever their other
+     * settings. This is called when the window using the properties is
+     * disposed or the connection is changed.
+     *
+     * @param properties the database connection properties
+     */
+    public void closePools(ConnectionProperties properties) {
+        List<ConnectionPool> closing = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Map.Entry<String, ConnectionPool>> iterator = pools.entrySet().iterator();
+                    iterator.hasNext();) {
+                Map.Entry<String, ConnectionPool> entry = iterator.next();
+                if (entry.getKey().equals(createIdentity(properties, entry.getValue().getUrl()))) {
+                    iterator.remove();
+                    cancelKeepAlive(entry.getKey());
+                    closing.add(entry.getValue());
+                }
+            }
+        }
+        for (ConnectionPool pool : closing) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This method shuts down and removes every pool.
+     */
+    public void closeAllPools() {
+        List<ConnectionPool> closing;
+        synchronized (this) {
+            closing = new ArrayList<>(pools.values());
+            for (String identity : pools.keySet()) {
+                cancelKeepAlive(identity);
+            }
+            pools.clear();
+        }
+        for (ConnectionPool pool : closing) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This method cancels the keep-alive task of the pool with the given
+     * identity.
+     *
+     * @param identity the connection identity
+     */
+    private void cancelKeepAlive(String identity) {
+        ScheduledFuture<?> task = keepAliveTasks.remove(identity);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * This method evicts the expired idle connections of every pool.
+     */
+    private void evictIdleConnections() {
+        List<ConnectionPool> current;
+        synchronized (this) {
+            current = new ArrayList<>(pools.values());
+        }
+        for (ConnectionPool pool : current) {
+            pool.evictIdleConnections();
+        }
+    }
+
+    /**
+     * This method creates the identity string for a connection from the
+     * database type, the URL, the username, and the fetch settings, which are
+     * fixed when a connection is opened.
+     *
+     * @param properties the database connection properties
+     * @param url the database URL
+     * @return the connection identity
+     */
+    static String createIdentity(ConnectionProperties properties, String url) {
+        return properties.getProperty(ConnectionProperties.DATABASE_TYPE) + "|" + url + "|"
+                + properties.getProperty(ConnectionProperties.USERNAME) + "|"
+                + DatabaseUtil.getFetchStrategy(properties) + "|" + DatabaseUtil.getFetchSize(properties);
+    }
+}
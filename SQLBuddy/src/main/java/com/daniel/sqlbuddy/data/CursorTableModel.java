@@ -0,0 +1,699 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.util.DatabaseUtil;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This table model reads the rows of a query from an open forward-only cursor
+ * a page at a time, as the table asks for them. The first page is read by the
+ * thread executing the query, and its rows are shown in chunks while it is
+ * read. Further pages are read on a background thread when the table shows
+ * rows near the end of the rows fetched so far, and the new rows are added on
+ * the event dispatch thread. Only a bounded number of pages is kept in memory.
+ * A page that has been dropped is written to a temporary file and read back
+ * from it when it is shown again. When spilling is off, or the page could not
+ * be written, it is read again by running the query again and skipping to it.
+ * The cursor and the connection lease are released once every row is in
+ * memory or in the file, or when the model is closed.
+ *
+ * @author Bryan Daniel
+ */
+public class CursorTableModel extends AbstractTableModel implements Closeable {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The default number of rows read at a time
+     */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    /**
+     * The default number of pages kept in memory
+     */
+    public static final int DEFAULT_WINDOW_PAGES = 20;
+
+    /**
+     * The minimum number of milliseconds between reports of new rows while
+     * the first page is read
+     */
+    public static final long CHUNK_INTERVAL_MILLISECONDS = 100;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * The lease of the connection the cursor is open on
+     */
+    private final ConnectionLease lease;
+
+    /**
+     * The query read by the cursor
+     */
+    private final String queryString;
+
+    /**
+     * The names of the columns
+     */
+    private final String[] columnNames;
+
+    /**
+     * The SQL types of the columns
+     */
+    private final int[] columnTypes;
+
+    /**
+     * The number of rows in a page
+     */
+    private final int pageSize;
+
+    /**
+     * The maximum number of pages kept in memory
+     */
+    private final int windowPages;
+
+    /**
+     * The pages in memory keyed by page number, in least recently used order
+     */
+    private final Map<Integer, ResultTable> pages;
+
+    /**
+     * True if dropped pages are written to a temporary file
+     */
+    private final boolean spillDropped;
+
+    /**
+     * The file holding dropped pages, created on the fetcher thread when the
+     * first page is dropped
+     */
+    private ResultSpill spill;
+
+    /**
+     * True once a dropped page could not be written to the file
+     */
+    private volatile boolean spillFailed;
+
+    /**
+     * The numbers of the pages being read, used on the event dispatch thread
+     */
+    private final Set<Integer> loadingPages;
+
+    /**
+     * The statement owned by this model, or null if the statement belongs to
+     * someone else
+     */
+    private Statement statement;
+
+    /**
+     * The fetch size of the cursor, reused when the query is run again, or
+     * zero for the driver default
+     */
+    private int fetchSize;
+
+    /**
+     * The open cursor, or null if the cursor is closed
+     */
+    private ResultSet resultSet;
+
+    /**
+     * The tuner adjusting the fetch size of the cursor
+     */
+    private FetchSizeTuner tuner;
+
+    /**
+     * The number of rows the cursor has moved past
+     */
+    private int cursorRow;
+
+    /**
+     * The number of rows shown by the table, used on the event dispatch
+     * thread
+     */
+    private int fetchedRowCount;
+
+    /**
+     * True once the last row has been fetched, used on the event dispatch
+     * thread
+     */
+    private boolean complete;
+
+    /**
+     * The message of the exception that stopped fetching, or null
+     */
+    private volatile String failure;
+
+    /**
+     * True if this model holds the connection lease
+     */
+    private volatile boolean leaseHeld;
+
+    /**
+     * True once the model is closed
+     */
+    private boolean closed;
+
+    /**
+     * The thread reading pages from the cursor, created when first needed
+     */
+    private ExecutorService fetcher;
+
+    /**
+     * The number of rows of the first page read so far
+     */
+    private volatile int firstPageRowCount;
+
+    /**
+     * True once the first page has been read or reading it has failed
+     */
+    private volatile boolean firstPageRead;
+
+    /**
+     * True once the table has been told the first page was read, used on the
+     * event dispatch thread
+     */
+    private boolean firstPageShown;
+
+    /**
+     * This constructor reads the column names from the given cursor. The
+     * first page of rows must then be read with the readFirstPage method. The
+     * model closes the given statement when it is done with it.
+     *
+     * @param lease the lease of the connection the cursor is open on
+     * @param queryString the query read by the cursor
+     * @param statement the statement the model owns, or null if the statement
+     * belongs to someone else
+     * @param resultSet the open cursor
+     * @param pageSize the number of rows in a page
+     * @param windowPages the maximum number of pages kept in memory
+     * @param spillDropped true if dropped pages are written to a temporary
+     * file
+     * @throws SQLException if the column names cannot be read
+     */
+    public CursorTableModel(ConnectionLease lease, String queryString, Statement statement,
+            ResultSet resultSet, int pageSize, int windowPages, boolean spillDropped) throws SQLException {
+
+        logger = LogManager.getLogger(CursorTableModel.class);
+        this.lease = lease;
+        this.queryString = queryString;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.pageSize = Math.max(1, pageSize);
+        this.windowPages = Math.max(2, windowPages);
+        this.spillDropped = spillDropped;
+        pages = new LinkedHashMap<>(16, 0.75f, true);
+        loadingPages = new HashSet<>();
+
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            columnNames = ResultTable.readColumnNames(metaData);
+            columnTypes = ResultTable.readColumnTypes(metaData);
+        } catch (SQLException ex) {
+            closeCursor();
+            throw ex;
+        }
+        fetchSize = readFetchSize(resultSet);
+        tuner = new FetchSizeTuner(resultSet, fetchSize, 1, 1, 0);
+        loadingPages.add(0);
+    }
+
+    /**
+     * This method reads the first page of rows on the thread executing the
+     * query. The given callback is run after each chunk of rows, at most once
+     * per chunk interval, so the rows can be shown while the page is read.
+     * If more rows remain, the model holds the connection lease until it is
+     * closed. Otherwise the cursor is closed. The given tuner adjusts the
+     * fetch size of the cursor while its first rows are read.
+     *
+     * @param rowsRead the callback run when rows have been read, or null
+     * @param tuner the tuner adjusting the fetch size of the cursor
+     * @throws SQLException if the first page cannot be read
+     */
+    public void readFirstPage(Runnable rowsRead, FetchSizeTuner tuner) throws SQLException {
+
+        ResultTable rows = new ResultTable(columnNames, columnTypes, pageSize);
+        synchronized (pages) {
+            pages.put(0, rows);
+        }
+        this.tuner = tuner;
+        int count = 0;
+        long reportTime = System.currentTimeMillis() + CHUNK_INTERVAL_MILLISECONDS;
+        try {
+            while (count < pageSize && tuner.next()) {
+                rows.addRow(resultSet);
+                tuner.rowRead(rows);
+                count++;
+                cursorRow++;
+                if (rowsRead != null && System.currentTimeMillis() >= reportTime) {
+                    firstPageRowCount = count;
+                    rowsRead.run();
+                    reportTime = System.currentTimeMillis() + CHUNK_INTERVAL_MILLISECONDS;
+                }
+            }
+            if (count < pageSize) {
+                closeCursor();
+            } else {
+                lease.acquire();
+                leaseHeld = true;
+            }
+        } catch (SQLException ex) {
+            failure = ex.getMessage();
+            closeCursor();
+            throw ex;
+        } finally {
+            firstPageRowCount = count;
+            firstPageRead = true;
+            SwingUtilities.invokeLater(this::showNewRows);
+        }
+    }
+
+    /**
+     * This method tells the table about the rows of the first page read since
+     * it was last called. This must be executed on the event dispatch thread.
+     */
+    public void showNewRows() {
+
+        if (firstPageShown || closed) {
+            return;
+        }
+        boolean read = firstPageRead;
+        int count = firstPageRowCount;
+        if (count > fetchedRowCount) {
+            int previousCount = fetchedRowCount;
+            fetchedRowCount = count;
+            fireTableRowsInserted(previousCount, count - 1);
+        }
+        if (read) {
+            firstPageShown = true;
+            loadingPages.remove(0);
+            complete = failure != null || count < pageSize;
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * This method returns the number of rows fetched so far.
+     *
+     * @return the number of rows
+     */
+    @Override
+    public int getRowCount() {
+        return fetchedRowCount;
+    }
+
+    /**
+     * This method returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * This method returns the name of the given column.
+     *
+     * @param column the column index
+     * @return the column name
+     */
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * This method returns the value at the given cell. A cell whose page is
+     * not in memory is shown empty while its page is read. Reaching the last
+     * page fetched starts reading the next one.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the cell value, or null if it is not in memory
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+
+        if (!complete && row >= fetchedRowCount - pageSize / 2) {
+            requestPage(fetchedRowCount / pageSize);
+        }
+        ResultTable rows;
+        synchronized (pages) {
+            rows = pages.get(row / pageSize);
+        }
+        if (rows == null) {
+            requestPage(row / pageSize);
+            return null;
+        }
+        return row < fetchedRowCount ? rows.getValueAt(row % pageSize, column) : null;
+    }
+
+    /**
+     * Get the number of rows fetched so far
+     *
+     * @return the number of rows fetched
+     */
+    public int getFetchedRowCount() {
+        return fetchedRowCount;
+    }
+
+    /**
+     * This method determines whether every row has been fetched or fetching
+     * has stopped.
+     *
+     * @return true if no more rows will be fetched, false otherwise
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Get the value of failure
+     *
+     * @return the message of the exception that stopped fetching, or null
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * This method estimates the number of bytes of heap used by the pages in
+     * memory.
+     *
+     * @return the estimated number of bytes
+     */
+    public long estimateBytes() {
+        long bytes = 0;
+        synchronized (pages) {
+            for (ResultTable rows : pages.values()) {
+                bytes += rows.estimateBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * This method drops the rows in memory, closes the cursor, deletes the
+     * file of dropped pages and releases the connection lease. This must be
+     * executed on the event dispatch thread.
+     */
+    @Override
+    public void close() {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (pages) {
+            pages.clear();
+        }
+        if (fetcher == null) {
+            closeCursor();
+            releaseLease();
+        } else {
+            fetcher.submit(() -> {
+                closeCursor();
+                releaseLease();
+                if (spill != null) {
+                    spill.close();
+                }
+            });
+            fetcher.shutdown();
+        }
+    }
+
+    /**
+     * This method starts reading the given page on the fetcher thread unless
+     * it is already being read. This is executed on the event dispatch
+     * thread.
+     *
+     * @param page the page number
+     */
+    private void requestPage(int page) {
+
+        if (closed || !loadingPages.add(page)) {
+            return;
+        }
+        if (fetcher == null) {
+            fetcher = Executors.newSingleThreadExecutor((Runnable runnable) -> {
+                Thread thread = new Thread(runnable, "result-fetcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        fetcher.submit(() -> {
+            ResultTable rows = null;
+            String message = null;
+            try {
+                rows = readPage(page);
+            } catch (SQLException ex) {
+                logger.error("SQLException occurred while fetching result rows.", ex);
+                message = ex.getMessage();
+            }
+            ResultTable pageRows = rows;
+            String pageFailure = message;
+            SwingUtilities.invokeLater(() -> pageLoaded(page, pageRows, pageFailure));
+        });
+    }
+
+    /**
+     * This method adds a page read on the fetcher thread to the model and
+     * notifies the table. This is executed on the event dispatch thread.
+     *
+     * @param page the page number
+     * @param rows the rows of the page, or null if it could not be read
+     * @param message the message of the exception that stopped reading, or
+     * null
+     */
+    private void pageLoaded(int page, ResultTable rows, String message) {
+
+        loadingPages.remove(page);
+        if (closed) {
+            return;
+        }
+        if (rows == null) {
+            failure = message;
+            complete = true;
+            fireTableDataChanged();
+            return;
+        }
+        int droppedPage = -1;
+        ResultTable droppedRows = null;
+        synchronized (pages) {
+            pages.put(page, rows);
+            if (pages.size() > windowPages) {
+                droppedPage = pages.keySet().iterator().next();
+                droppedRows = pages.remove(droppedPage);
+            }
+        }
+        if (droppedRows != null && spillDropped) {
+            spillPage(droppedPage, droppedRows);
+        }
+        int first = page * pageSize;
+        int end = first + rows.getRowCount();
+        if (end > fetchedRowCount) {
+            int previousCount = fetchedRowCount;
+            fetchedRowCount = end;
+            complete = rows.getRowCount() < pageSize;
+            fireTableRowsInserted(previousCount, end - 1);
+        } else {
+            if (end == fetchedRowCount && rows.getRowCount() < pageSize) {
+                complete = true;
+            }
+            fireTableRowsUpdated(first, Math.max(first, end - 1));
+        }
+        if (complete && leaseHeld) {
+            // the cursor is no longer needed once every row is in memory or in the spill file
+            boolean inMemory = fetchedRowCount <= pageSize * windowPages;
+            if (inMemory || spillDropped) {
+                fetcher.submit(() -> {
+                    if (inMemory || !spillFailed) {
+                        closeCursor();
+                        releaseLease();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * This method writes a dropped page to the spill file on the fetcher
+     * thread, before any later request to read it again. This is executed on
+     * the event dispatch thread.
+     *
+     * @param page the page number
+     * @param rows the rows of the page
+     */
+    private void spillPage(int page, ResultTable rows) {
+
+        fetcher.submit(() -> {
+            try {
+                if (spill == null) {
+                    spill = new ResultSpill(columnNames, columnTypes);
+                }
+                if (!spill.hasPage(page)) {
+                    spill.writePage(page, rows, 0, rows.getRowCount());
+                }
+            } catch (IOException ex) {
+                logger.error("IOException occurred while writing result rows to the spill file.", ex);
+                spillFailed = true;
+            }
+        });
+    }
+
+    /**
+     * This method reads the given page from the spill file if it was written
+     * there, or otherwise from the cursor, running the query again when the
+     * page is behind the cursor or the cursor was lost. This is executed on
+     * the fetcher thread.
+     *
+     * @param page the page number
+     * @return the rows of the page
+     * @throws SQLException if the page cannot be read
+     */
+    private ResultTable readPage(int page) throws SQLException {
+
+        if (spill != null && spill.hasPage(page)) {
+            try {
+                return spill.readPage(page);
+            } catch (IOException ex) {
+                logger.error("IOException occurred while reading result rows from the spill file.", ex);
+            }
+        }
+        int first = page * pageSize;
+        if (resultSet == null || first < cursorRow) {
+            reopenCursor();
+            return readRows(first);
+        }
+        try {
+            return readRows(first);
+        } catch (SQLException ex) {
+            logger.info("The result cursor was lost. Running the query again.", ex);
+            reopenCursor();
+            return readRows(first);
+        }
+    }
+
+    /**
+     * This method moves the cursor to the given row and reads up to a page of
+     * rows from there. The cursor is closed when its last row has been read.
+     *
+     * @param first the index of the first row to read
+     * @return the rows read
+     * @throws SQLException if the rows cannot be read
+     */
+    private ResultTable readRows(int first) throws SQLException {
+
+        ResultTable rows = new ResultTable(columnNames, columnTypes, pageSize);
+        while (cursorRow < first) {
+            if (!resultSet.next()) {
+                closeCursor();
+                return rows;
+            }
+            cursorRow++;
+        }
+        while (rows.getRowCount() < pageSize && tuner.next()) {
+            rows.addRow(resultSet);
+            tuner.rowRead(rows);
+            cursorRow++;
+        }
+        if (rows.getRowCount() < pageSize) {
+            closeCursor();
+        }
+        return rows;
+    }
+
+    /**
+     * This method runs the query again on the leased connection, replacing
+     * the cursor. The new cursor keeps the fetch size the old one ended with.
+     *
+     * @throws SQLException if the query cannot be run
+     */
+    private void reopenCursor() throws SQLException {
+
+        closeCursor();
+        if (!leaseHeld) {
+            throw new SQLException("The connection for these results has been released.");
+        }
+        logger.info("Running query again to read results: " + queryString);
+        if (fetchSize > 0) {
+            fetchSize = tuner.getFetchSize();
+        }
+        statement = lease.getConnection().createStatement();
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        }
+        resultSet = statement.executeQuery(queryString);
+        tuner = new FetchSizeTuner(resultSet, fetchSize, 1, 1, 0);
+        cursorRow = 0;
+    }
+
+    /**
+     * This method reads the fetch size the statement of the given cursor was
+     * run with.
+     *
+     * @param cursor the cursor
+     * @return the fetch size, or zero for the driver default
+     */
+    private int readFetchSize(ResultSet cursor) {
+        try {
+            return Math.max(0, cursor.getFetchSize());
+        } catch (SQLException ex) {
+            logger.debug("The driver did not report the fetch size.", ex);
+            return 0;
+        }
+    }
+
+    /**
+     * This method closes the cursor and the statement owned by this model.
+     */
+    private void closeCursor() {
+        DatabaseUtil.closeResultSet(resultSet);
+        DatabaseUtil.closeStatement(statement);
+        resultSet = null;
+        statement = null;
+    }
+
+    /**
+     * This method releases the connection lease if it is held.
+     */
+    private void releaseLease() {
+        if (leaseHeld) {
+            leaseHeld = false;
+            lease.release();
+        }
+    }
+}
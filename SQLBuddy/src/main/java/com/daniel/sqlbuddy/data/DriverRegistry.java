@@ -0,0 +1,357 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import com.daniel.sqlbuddy.model.DriverDelegate;
+import com.daniel.sqlbuddy.util.DatabaseUtil;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class loads database drivers from driver jar files. Each jar is loaded
+ * by a single class loader and each driver class is instantiated and
+ * registered with the DriverManager only once, no matter how many times it is
+ * requested. The class implements the Singleton design pattern, as the loaded
+ * drivers must be shared by the whole program.
+ *
+ * @author Bryan Daniel
+ */
+public class DriverRegistry {
+
+    /**
+     * The single DriverRegistry object
+     */
+    private static DriverRegistry registry = null;
+
+    /**
+     * The class loaders keyed by driver jar path
+     */
+    private final Map<String, URLClassLoader> classLoaders;
+
+    /**
+     * The registered drivers keyed by driver jar path and class name
+     */
+    private final Map<String, DriverDelegate> drivers;
+
+    /**
+     * The number of driver requests made
+     */
+    private long lookupCount;
+
+    /**
+     * The number of class loaders created
+     */
+    private long classLoaderCount;
+
+    /**
+     * The number of drivers registered with the DriverManager
+     */
+    private long registrationCount;
+
+    /**
+     * The number of drivers deregistered from the DriverManager
+     */
+    private long deregistrationCount;
+
+    /**
+     * The number of connections opened directly through a registered driver
+     */
+    private long directConnectCount;
+
+    /**
+     * The number of connections opened through the DriverManager
+     */
+    private long fallbackConnectCount;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Private constructor - not called publicly
+     */
+    private DriverRegistry() {
+        classLoaders = new HashMap<>();
+        drivers = new HashMap<>();
+        logger = LogManager.getLogger(DriverRegistry.class);
+    }
+
+    /**
+     * This method returns the single DriverRegistry. If the instance of
+     * DriverRegistry has not been created previously, it is created here.
+     *
+     * @return the DriverRegistry object
+     */
+    public synchronized static DriverRegistry getInstance() {
+        if (registry == null) {
+            registry = new DriverRegistry();
+        }
+        return registry;
+    }
+
+    /**
+     * This method returns the registered driver for the driver path and class
+     * name held by the given connection properties.
+     *
+     * @param properties the database connection properties
+     * @return the registered driver
+     * @throws SQLException if the driver cannot be loaded or registered
+     */
+    public DriverDelegate getDriver(ConnectionProperties properties) throws SQLException {
+        return getDriver(properties.getProperty(ConnectionProperties.DRIVER_PATH),
+                properties.getProperty(ConnectionProperties.CLASS_NAME));
+    }
+
+    /**
+     * This method returns the registered driver for the given jar and class
+     * name. The jar and driver class are loaded and registered on the first
+     * request only.
+     *
+     * @param driverPath the path of the driver jar
+     * @param className the driver class name
+     * @return the registered driver
+     * @throws SQLException if the driver cannot be loaded or registered
+     */
+    public synchronized DriverDelegate getDriver(String driverPath, String className) throws SQLException {
+
+        lookupCount++;
+        String key = createKey(driverPath, className);
+        DriverDelegate delegate = drivers.get(key);
+        if (delegate != null) {
+            return delegate;
+        }
+        try {
+            URLClassLoader urlClassLoader = classLoaders.get(driverPath);
+            if (urlClassLoader == null) {
+                URL url = new URL(MessageFormat.format("jar:file:{0}!/", driverPath));
+                urlClassLoader = new URLClassLoader(new URL[]{url});
+                classLoaders.put(driverPath, urlClassLoader);
+                classLoaderCount++;
+            }
+            Driver driver = (Driver) Class.forName(className, true, urlClassLoader).newInstance();
+            delegate = new DriverDelegate(driver);
+            DriverManager.registerDriver(delegate);
+            registrationCount++;
+            drivers.put(key, delegate);
+            logger.info("Registered driver " + className + " from " + driverPath + ".");
+            return delegate;
+        } catch (MalformedURLException | ClassNotFoundException | InstantiationException
+                | IllegalAccessException | ClassCastException ex) {
+            throw new SQLException("The database driver could not be loaded.", ex);
+        }
+    }
+
+    /**
+     * This method opens a connection to the given URL. The registered driver
+     * for the connection properties is called directly, avoiding the lock and
+     * the scan of every registered driver done by the DriverManager. The
+     * DriverManager is used only when the driver cannot be loaded from the jar
+     * or does not accept the URL.
+     *
+     * @param properties the database connection properties
+     * @param url the database URL
+     * @return the new connection
+     * @throws SQLException if the connection cannot be opened
+     */
+    public Connection connect(ConnectionProperties properties, String url) throws SQLException {
+
+        Properties info = DatabaseUtil.createConnectionInfo(properties);
+        Driver driver = null;
+        try {
+            driver = getDriver(properties);
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred loading the driver. Connecting through the DriverManager.", ex);
+        }
+        if (driver != null) {
+            Connection connection = driver.connect(url, info);
+            if (connection != null) {
+                synchronized (this) {
+                    directConnectCount++;
+                }
+                return connection;
+            }
+            logger.info("The driver does not accept the URL. Connecting through the DriverManager.");
+        }
+        synchronized (this) {
+            fallbackConnectCount++;
+        }
+        return DriverManager.getConnection(url, info);
+    }
+
+    /**
+     * This method deregisters the driver for the given jar and class name. The
+     * class loader of the jar is closed once no registered driver uses it.
+     *
+     * @param driverPath the path of the driver jar
+     * @param className the driver class name
+     */
+    public synchronized void unloadDriver(String driverPath, String className) {
+
+        DriverDelegate delegate = drivers.remove(createKey(driverPath, className));
+        if (delegate != null) {
+            deregister(delegate);
+            logger.info("Unloaded driver " + className + " from " + driverPath + ".");
+        }
+        String prefix = driverPath + "!";
+        for (String key : drivers.keySet()) {
+            if (key.startsWith(prefix)) {
+                return;
+            }
+        }
+        closeClassLoader(classLoaders.remove(driverPath));
+    }
+
+    /**
+     * This method deregisters every driver and closes every class loader.
+     */
+    public synchronized void unloadAll() {
+
+        for (Iterator<DriverDelegate> iterator = drivers.values().iterator(); iterator.hasNext();) {
+            deregister(iterator.next());
+            iterator.remove();
+        }
+        List<URLClassLoader> loaders = new ArrayList<>(classLoaders.values());
+        classLoaders.clear();
+        for (URLClassLoader loader : loaders) {
+            closeClassLoader(loader);
+        }
+    }
+
+    /**
+     * This method returns the number of driver requests made.
+     *
+     * @return the lookup count
+     */
+    public synchronized long getLookupCount() {
+        return lookupCount;
+    }
+
+    /**
+     * This method returns the number of class loaders created.
+     *
+     * @return the class loader count
+     */
+    public synchronized long getClassLoaderCount() {
+        return classLoaderCount;
+    }
+
+    /**
+     * This method returns the number of drivers registered with the
+     * DriverManager.
+     *
+     * @return the registration count
+     */
+    public synchronized long getRegistrationCount() {
+        return registrationCount;
+    }
+
+    /**
+     * This method returns the number of drivers deregistered from the
+     * DriverManager.
+     *
+     * @return the deregistration count
+     */
+    public synchronized long getDeregistrationCount() {
+        return deregistrationCount;
+    }
+
+    /**
+     * This method returns the number of connections opened directly through a
+     * registered driver.
+     *
+     * @return the direct connection count
+     */
+    public synchronized long getDirectConnectCount() {
+        return directConnectCount;
+    }
+
+    /**
+     * This method returns the number of connections opened through the
+     * DriverManager.
+     *
+     * @return the fallback connection count
+     */
+    public synchronized long getFallbackConnectCount() {
+        return fallbackConnectCount;
+    }
+
+    /**
+     * This method returns the number of drivers currently registered.
+     *
+     * @return the number of registered drivers
+     */
+    public synchronized int getRegisteredDriverCount() {
+        return drivers.size();
+    }
+
+    /**
+     * This method deregisters the given driver from the DriverManager.
+     *
+     * @param delegate the registered driver
+     */
+    private void deregister(DriverDelegate delegate) {
+        try {
+            DriverManager.deregisterDriver(delegate);
+            deregistrationCount++;
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred deregistering a driver.", ex);
+        }
+    }
+
+    /**
+     * This method closes the given class loader.
+     *
+     * @param loader the class loader
+     */
+    private void closeClassLoader(URLClassLoader loader) {
+        if (loader != null) {
+            try {
+                loader.close();
+            } catch (IOException ex) {
+                logger.error("IOException occurred closing a driver class loader.", ex);
+            }
+        }
+    }
+
+    /**
+     * This method creates the key for a driver from the jar path and class
+     * name.
+     *
+     * @param driverPath the path of the driver jar
+     * @param className the driver class name
+     * @return the driver key
+     */
+    private static String createKey(String driverPath, String className) {
+        return driverPath + "!" + className;
+    }
+}
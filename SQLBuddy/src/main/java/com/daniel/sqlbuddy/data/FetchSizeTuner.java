@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class adjusts the fetch size of a result set while its first rows are
+ * read. For each of the first few fetches it measures the size of the rows
+ * read and the round-trip latency, seen as the extra time taken by the call to
+ * next that waited for the server. The fetch size is then set so a fetch holds
+ * about the target number of bytes. It only grows when the round trips take a
+ * noticeable share of the reading time, since otherwise larger fetches only
+ * cost memory. A tuner with no target leaves the fetch size alone.
+ *
+ * @author Bryan Daniel
+ */
+public class FetchSizeTuner {
+
+    /**
+     * The number of fetches measured before the fetch size is left as it is
+     */
+    public static final int MEASURED_FETCHES = 3;
+
+    /**
+     * The default number of kilobytes a fetch should hold
+     */
+    public static final int DEFAULT_TARGET_KILOBYTES = 1024;
+
+    /**
+     * The default smallest fetch size chosen
+     */
+    public static final int DEFAULT_MIN_FETCH_SIZE = 50;
+
+    /**
+     * The default largest fetch size chosen
+     */
+    public static final int DEFAULT_MAX_FETCH_SIZE = 10000;
+
+    /**
+     * The share of the time to read a fetch that round trips must take for
+     * the fetch size to grow
+     */
+    private static final double LATENCY_SHARE = 0.1;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * The result set being read
+     */
+    private final ResultSet resultSet;
+
+    /**
+     * The smallest fetch size chosen
+     */
+    private final int minFetchSize;
+
+    /**
+     * The largest fetch size chosen
+     */
+    private final int maxFetchSize;
+
+    /**
+     * The number of bytes a fetch should hold
+     */
+    private final long targetBytes;
+
+    /**
+     * The current fetch size
+     */
+    private int fetchSize;
+
+    /**
+     * The number of fetches measured so far
+     */
+    private int fetchCount;
+
+    /**
+     * The number of rows read in the current fetch
+     */
+    private int rowCount;
+
+    /**
+     * The total nanoseconds spent in next during the current fetch
+     */
+    private long nextNanos;
+
+    /**
+     * The longest call to next during the current fetch in nanoseconds
+     */
+    private long slowestNextNanos;
+
+    /**
+     * The time the current fetch started being read in nanoseconds
+     */
+    private long fetchStartNanos;
+
+    /**
+     * True once the fetch size is no longer adjusted
+     */
+    private boolean done;
+
+    /**
+     * This constructor sets the result set and the limits of the fetch size.
+     *
+     * @param resultSet the result set being read
+     * @param fetchSize the fetch size the statement was run with
+     * @param minFetchSize the smallest fetch size chosen
+     * @param maxFetchSize the largest fetch size chosen
+     * @param targetBytes the number of bytes a fetch should hold, or zero to
+     * leave the fetch size alone
+     */
+    public FetchSizeTuner(ResultSet resultSet, int fetchSize, int minFetchSize, int maxFetchSize,
+            long targetBytes) {
+        logger = LogManager.getLogger(FetchSizeTuner.class);
+        this.resultSet = resultSet;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.minFetchSize = Math.max(1, minFetchSize);
+        this.maxFetchSize = Math.max(this.minFetchSize, maxFetchSize);
+        this.targetBytes = targetBytes;
+        done = targetBytes <= 0;
+        fetchStartNanos = System.nanoTime();
+    }
+
+    /**
+     * This method moves the result set to its next row, timing the call while
+     * fetches are being measured.
+     *
+     * @return true if the result set is on a row, false after the last row
+     * @throws SQLException if the next row cannot be read
+     */
+    public boolean next() throws SQLException {
+
+        if (done) {
+            return resultSet.next();
+        }
+        long start = System.nanoTime();
+        boolean onRow = resultSet.next();
+        long nanos = System.nanoTime() - start;
+        nextNanos += nanos;
+        slowestNextNanos = Math.max(slowestNextNanos, nanos);
+        return onRow;
+    }
+
+    /**
+     * This method counts a row that has been added to the given table. Once a
+     * fetch of rows has been read, the fetch size is adjusted from the size of
+     * the rows in the table and the latency of the fetch.
+     *
+     * @param rows the table the row was added to
+     */
+    public void rowRead(ResultTable rows) {
+
+        if (done || ++rowCount < fetchSize) {
+            return;
+        }
+        long readNanos = System.nanoTime() - fetchStartNanos;
+        // the call that waited for the server took longer than the others
+        long latencyNanos = slowestNextNanos - (nextNanos - slowestNextNanos) / Math.max(1, rowCount - 1);
+        long bytesPerRow = Math.max(1, rows.estimateBytes() / Math.max(1, rows.getRowCount()));
+        int size = (int) Math.max(minFetchSize, Math.min(maxFetchSize, targetBytes / bytesPerRow));
+        if (size > fetchSize && latencyNanos < readNanos * LATENCY_SHARE) {
+            size = fetchSize;
+        }
+        fetchCount++;
+        if (size != fetchSize) {
+            try {
+                resultSet.setFetchSize(size);
+                logger.debug("Fetch size changed from " + fetchSize + " to " + size + " at " + bytesPerRow
+                        + " bytes per row and " + latencyNanos / 1000 + " microseconds per round trip.");
+                fetchSize = size;
+            } catch (SQLException ex) {
+                logger.debug("The driver did not accept the fetch size.", ex);
+                done = true;
+            }
+        }
+        done |= fetchCount >= MEASURED_FETCHES;
+        rowCount = 0;
+        nextNanos = 0;
+        slowestNextNanos = 0;
+        fetchStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Get the value of fetchSize
+     *
+     * @return the current fetch size
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+}
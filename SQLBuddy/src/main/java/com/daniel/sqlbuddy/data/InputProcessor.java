@@ -17,6 +17,7 @@ package com.daniel.sqlbuddy.data;
 
 import com.daniel.sqlbuddy.model.ConnectionProperties;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 /**
  * Provides the ability to execute database queries found within input text.
@@ -34,4 +35,19 @@ public interface InputProcessor {
      * @return the list of results
      */
     public ArrayList<Object> executeInput(String queryString, ConnectionProperties properties);
+
+    /**
+     * This method sets the listener told of each result as soon as it is
+     * available, before the remaining queries have been executed.
+     *
+     * @param resultListener the result listener, or null for none
+     */
+    public void setResultListener(Consumer<Object> resultListener);
+
+    /**
+     * This method cancels the statement being executed and stops the
+     * execution of the remaining statements. It may be called from any
+     * thread.
+     */
+    public void cancel();
 }
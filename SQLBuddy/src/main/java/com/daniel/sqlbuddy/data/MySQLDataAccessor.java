@@ -16,16 +16,8 @@
 package com.daniel.sqlbuddy.data;
 
 import com.daniel.sqlbuddy.model.ConnectionProperties;
-import com.daniel.sqlbuddy.model.DriverDelegate;
-import com.daniel.sqlbuddy.util.DatabaseUtil;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.text.MessageFormat;
 import java.util.ArrayList;
 
 /**
@@ -51,28 +43,16 @@ public class MySQLDataAccessor extends BaseDataAccessor implements InputProcesso
         logger.info("Received input for MySQL database.");
         Connection connection = null;
         ArrayList<Object> allResults = new ArrayList<>();
-        StringBuilder connectionString = DatabaseUtil.createDatabaseUrl(properties);
-        connectionString.append("?allowMultiQueries=true");
-        
+        configure(properties);
+
         try {
-            String urlString = MessageFormat.format("jar:file:{0}!/",
-                    properties.getProperty(ConnectionProperties.DRIVER_PATH));
-            URL url = new URL(urlString);
-            String classname = properties.getProperty(ConnectionProperties.CLASS_NAME);
-            URLClassLoader urlClassLoader = new URLClassLoader(new URL[]{url});
-            Driver driver = (Driver) Class.forName(classname, true, urlClassLoader).newInstance();
-            DriverManager.registerDriver(new DriverDelegate(driver));
-            connection = DriverManager.getConnection(connectionString.toString(),
-                    properties.getProperty(ConnectionProperties.USERNAME),
-                    properties.getProperty(ConnectionProperties.PASSWORD));
+            connection = pool.borrowConnection();
             executeStatement(connection, queryString, allResults);
         } catch (SQLException e) {
             logger.error("SQLException occurred during MySQLDataAccessor.executeInput.", e);
-            allResults.add(e.getMessage());
-        } catch (MalformedURLException | ClassNotFoundException | InstantiationException | IllegalAccessException ex) {
-            logger.error("Exception occurred during MySQLDataAccessor.executeInput.", ex);
+            addResult(e.getMessage(), allResults);
         } finally {
-            DatabaseUtil.closeConnection(connection);
+            pool.releaseConnection(connection);
         }
         return allResults;
     }
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * This class remembers the statement boundaries found in recently executed
+ * scripts, so running an unchanged script again does not lex it again. Scripts
+ * are looked up by the hash and length of their text and then compared in
+ * full, so a different script with the same hash is never mistaken for a
+ * cached one. Only the statement offsets are stored with the text. The least
+ * recently used scripts are dropped when the number of scripts or their
+ * estimated size exceeds the limits, and each script is held through a soft
+ * reference, so the garbage collector drops it before memory runs out. The
+ * class implements the Singleton design pattern, as the cache must be shared
+ * by every query run in the program.
+ *
+ * @author Bryan Daniel
+ */
+public class ParsedScriptCache {
+
+    /**
+     * The maximum number of scripts cached
+     */
+    public static final int MAX_SCRIPTS = 4;
+
+    /**
+     * The maximum estimated number of bytes of the text and offsets of the
+     * cached scripts
+     */
+    public static final long MAX_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * The single ParsedScriptCache object
+     */
+    private static ParsedScriptCache cache = null;
+
+    /**
+     * The cached scripts keyed by the hash and length of their text, in least
+     * recently used order
+     */
+    private final LinkedHashMap<ScriptKey, ScriptReference> scripts;
+
+    /**
+     * The estimated number of bytes of the cached scripts
+     */
+    private long byteCount;
+
+    /**
+     * The number of lookups answered from the cache
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups not answered from the cache
+     */
+    private long missCount;
+
+    /**
+     * Private constructor - not called publicly
+     */
+    private ParsedScriptCache() {
+        scripts = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * This method returns the single ParsedScriptCache. If the instance of
+     * ParsedScriptCache has not been created previously, it is created here.
+     *
+     * @return the ParsedScriptCache object
+     */
+    public synchronized static ParsedScriptCache getInstance() {
+        if (cache == null) {
+            cache = new ParsedScriptCache();
+        }
+        return cache;
+    }
+
+    /**
+     * This method returns the statement offsets found in the given script
+     * when it was last lexed.
+     *
+     * @param text the script text
+     * @param databaseType the database type whose SQL rules applied
+     * @return the start and end offset of each statement in turn, or null if
+     * the script is not cached
+     */
+    public synchronized int[] getStatementOffsets(String text, String databaseType) {
+        ScriptKey key = new ScriptKey(text, databaseType);
+        ScriptReference reference = scripts.get(key);
+        ParsedScript script = reference == null ? null : reference.get();
+        if (reference != null && script == null) {
+            remove(key);
+        }
+        if (script == null || !script.text.equals(text)) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return script.offsets;
+    }
+
+    /**
+     * This method caches the statement offsets found in the given script.
+     * Scripts larger than the size limit are not cached.
+     *
+     * @param text the script text
+     * @param databaseType the database type whose SQL rules applied
+     * @param offsets the start and end offset of each statement in turn
+     */
+    public synchronized void putStatementOffsets(String text, String databaseType, int[] offsets) {
+        long bytes = 2L * text.length() + 4L * offsets.length;
+        if (bytes > MAX_BYTES) {
+            return;
+        }
+        ScriptKey key = new ScriptKey(text, databaseType);
+        remove(key);
+        scripts.put(key, new ScriptReference(new ParsedScript(text, offsets), bytes));
+        byteCount += bytes;
+        Iterator<ScriptReference> iterator = scripts.values().iterator();
+        while (iterator.hasNext()) {
+            ScriptReference reference = iterator.next();
+            if (reference.get() == null || scripts.size() > MAX_SCRIPTS || byteCount > MAX_BYTES) {
+                byteCount -= reference.bytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the value of hitCount
+     *
+     * @return the value of hitCount
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the value of missCount
+     *
+     * @return the value of missCount
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * This method removes the script with the given key from the cache.
+     *
+     * @param key the script key
+     */
+    private void remove(ScriptKey key) {
+        ScriptReference removed = scripts.remove(key);
+        if (removed != null) {
+            byteCount -= removed.bytes;
+        }
+    }
+
+    /**
+     * This class identifies a script by the hash and length of its text and
+     * the database type it was lexed for, so the key does not hold the text.
+     */
+    private static class ScriptKey {
+
+        /**
+         * The hash of the script text
+         */
+        private final int hash;
+
+        /**
+         * The length of the script text
+         */
+        private final int length;
+
+        /**
+         * The database type
+         */
+        private final String databaseType;
+
+        /**
+         * This constructor sets the hash and length of the script text and
+         * the database type.
+         *
+         * @param text the script text
+         * @param databaseType the database type
+         */
+        private ScriptKey(String text, String databaseType) {
+            this.hash = text.hashCode();
+            this.length = text.length();
+            this.databaseType = databaseType == null ? "" : databaseType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * hash + databaseType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof ScriptKey)) {
+                return false;
+            }
+            ScriptKey other = (ScriptKey) object;
+            return hash == other.hash && length == other.length && databaseType.equals(other.databaseType);
+        }
+    }
+
+    /**
+     * This class pairs a script with the statement offsets found in it.
+     */
+    private static class ParsedScript {
+
+        /**
+         * The script text
+         */
+        private final String text;
+
+        /**
+         * The start and end offset of each statement in turn
+         */
+        private final int[] offsets;
+
+        /**
+         * This constructor sets the script text and statement offsets.
+         *
+         * @param text the script text
+         * @param offsets the statement offsets
+         */
+        private ParsedScript(String text, int[] offsets) {
+            this.text = text;
+            this.offsets = offsets;
+        }
+    }
+
+    /**
+     * This class holds a cached script softly, along with its estimated size,
+     * which is still known after the script has been collected.
+     */
+    private static class ScriptReference extends SoftReference<ParsedScript> {
+
+        /**
+         * The estimated number of bytes of the script
+         */
+        private final long bytes;
+
+        /**
+         * This constructor creates a soft reference to the given script.
+         *
+         * @param script the script
+         * @param bytes the estimated number of bytes of the script
+         */
+        private ScriptReference(ParsedScript script, long bytes) {
+            super(script);
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.util.DatabaseUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the prepared statements of one connection, keyed by the
+ * normalized statement text. The least recently used statement is closed when
+ * the cache is full. Statements the database would not prepare are remembered
+ * so they are not tried again.
+ *
+ * @author Bryan Daniel
+ */
+public class PreparedStatementCache {
+
+    /**
+     * The connection the statements are prepared on
+     */
+    private final Connection connection;
+
+    /**
+     * The prepared statements in least recently used order
+     */
+    private final Map<String, PreparedStatement> statements;
+
+    /**
+     * The statement texts that could not be prepared or executed
+     */
+    private final Map<String, Boolean> rejected;
+
+    /**
+     * The number of requests answered by a cached statement
+     */
+    private long hitCount;
+
+    /**
+     * The number of requests that prepared a new statement
+     */
+    private long missCount;
+
+    /**
+     * This constructor creates a cache holding up to the given number of
+     * statements for the given connection.
+     *
+     * @param connection the connection
+     * @param capacity the maximum number of cached statements
+     */
+    public PreparedStatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    DatabaseUtil.closeStatement(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+        rejected = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * This method returns the prepared statement for the given text,
+     * preparing and caching it if it is not cached.
+     *
+     * @param sql the normalized statement text
+     * @return the prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public synchronized PreparedStatement getStatement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            hitCount++;
+            return statement;
+        }
+        missCount++;
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * This method takes the given statement out of the cache without closing
+     * it, handing it to the caller. The next request for the SQL prepares a
+     * new statement.
+     *
+     * @param sql the normalized SQL text
+     * @param statement the statement the caller keeps
+     */
+    public synchronized void detachStatement(String sql, PreparedStatement statement) {
+        statements.remove(sql, statement);
+    }
+
+    /**
+     * This method determines whether the given text was rejected earlier.
+     *
+     * @param sql the normalized statement text
+     * @return true if the text was rejected, false otherwise
+     */
+    public synchronized boolean isRejected(String sql) {
+        return rejected.get(sql) != null;
+    }
+
+    /**
+     * This method closes and removes the statement for the given text and
+     * remembers that the text should not be prepared again.
+     *
+     * @param sql the normalized statement text
+     */
+    public synchronized void reject(String sql) {
+        DatabaseUtil.closeStatement(statements.remove(sql));
+        rejected.put(sql, Boolean.TRUE);
+    }
+
+    /**
+     * This method closes every cached statement.
+     */
+    public synchronized void close() {
+        for (PreparedStatement statement : statements.values()) {
+            DatabaseUtil.closeStatement(statement);
+        }
+        statements.clear();
+    }
+
+    /**
+     * Get the value of hitCount
+     *
+     * @return the value of hitCount
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the value of missCount
+     *
+     * @return the value of missCount
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * This method returns the fraction of requests answered by a cached
+     * statement.
+     *
+     * @return the hit ratio, or zero if no requests were made
+     */
+    public synchronized double getHitRatio() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+}
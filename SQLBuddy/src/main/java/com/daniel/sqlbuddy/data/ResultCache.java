@@ -0,0 +1,290 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.util.QueryUtil;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class keeps the results of recently run queries, so running the same
+ * query again on the same connection profile can show the earlier result
+ * without asking the database. Queries are looked up by their normalized text
+ * and the literal values lifted from it. A result is dropped when it is older
+ * than the time to live of its profile, when a statement that may write data
+ * runs on its profile, or when the least recently used results of its profile
+ * exceed the byte budget of the profile. The class implements the Singleton
+ * design pattern, as the cache must be shared by every query run in the
+ * program.
+ *
+ * @author Bryan Daniel
+ */
+public class ResultCache {
+
+    /**
+     * The single ResultCache object
+     */
+    private static ResultCache cache = null;
+
+    /**
+     * The cached results keyed by query, in least recently used order
+     */
+    private final LinkedHashMap<Key, CachedResult> results;
+
+    /**
+     * The estimated number of bytes of the cached results keyed by profile
+     */
+    private final Map<String, Long> profileBytes;
+
+    /**
+     * The number of lookups answered from the cache
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups not answered from the cache
+     */
+    private long missCount;
+
+    /**
+     * Private constructor - not called publicly
+     */
+    private ResultCache() {
+        results = new LinkedHashMap<>(16, 0.75f, true);
+        profileBytes = new HashMap<>();
+    }
+
+    /**
+     * This method returns the single ResultCache. If the instance of
+     * ResultCache has not been created previously, it is created here.
+     *
+     * @return the ResultCache object
+     */
+    public synchronized static ResultCache getInstance() {
+        if (cache == null) {
+            cache = new ResultCache();
+        }
+        return cache;
+    }
+
+    /**
+     * This method creates the key of the given statement if its result may be
+     * cached. Only read-only statements holding a single query are cached.
+     *
+     * @param profile the identity of the connection profile
+     * @param statement the statement
+     * @param databaseType the database type whose SQL rules apply
+     * @return the key, or null if the statement may write data or holds more
+     * than one query
+     */
+    public static Key createKey(String profile, String statement, String databaseType) {
+
+        if (!QueryUtil.isReadOnlyStatement(statement) || !QueryUtil.isSingleQuery(statement)) {
+            return null;
+        }
+        StatementFingerprint fingerprint = StatementFingerprint.create(statement, databaseType);
+        String text = fingerprint == null ? statement.trim() : fingerprint.getText().trim();
+        while (text.endsWith(";")) {
+            text = text.substring(0, text.length() - 1).trim();
+        }
+        List<Object> parameters = fingerprint == null ? Collections.emptyList() : fingerprint.getParameters();
+        return new Key(profile, text, parameters);
+    }
+
+    /**
+     * This method returns a new model showing the cached result of the given
+     * query, unless it is older than the given time to live.
+     *
+     * @param key the query key
+     * @param timeToLive the number of milliseconds a result stays valid
+     * @return the model marked as cached, or null if the result is not cached
+     */
+    public synchronized ResultTableModel getResult(Key key, long timeToLive) {
+        CachedResult result = results.get(key);
+        if (result != null && System.currentTimeMillis() - result.time > timeToLive) {
+            remove(key);
+            result = null;
+        }
+        if (result == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return new ResultTableModel(result.table, result.time);
+    }
+
+    /**
+     * This method caches the given result of the given query, dropping the
+     * least recently used results of its profile while the profile is over
+     * its budget. A result larger than the budget is not cached.
+     *
+     * @param key the query key
+     * @param table the complete result, which must not change afterwards
+     * @param budget the number of bytes the results of the profile may take
+     */
+    public void putResult(Key key, ResultTable table, long budget) {
+
+        long bytes = table.estimateBytes();
+        if (bytes > budget) {
+            return;
+        }
+        synchronized (this) {
+            remove(key);
+            results.put(key, new CachedResult(table, bytes, System.currentTimeMillis()));
+            long total = profileBytes.merge(key.profile, bytes, Long::sum);
+            Iterator<Map.Entry<Key, CachedResult>> iterator = results.entrySet().iterator();
+            while (total > budget && iterator.hasNext()) {
+                Map.Entry<Key, CachedResult> entry = iterator.next();
+                if (entry.getKey().profile.equals(key.profile)) {
+                    total -= entry.getValue().bytes;
+                    iterator.remove();
+                }
+            }
+            profileBytes.put(key.profile, total);
+        }
+    }
+
+    /**
+     * This method drops every cached result of the given profile. It is
+     * called before a statement that may write data runs on the profile.
+     *
+     * @param profile the identity of the connection profile
+     */
+    public synchronized void invalidate(String profile) {
+        if (profileBytes.remove(profile) == null) {
+            return;
+        }
+        results.keySet().removeIf((Key key) -> key.profile.equals(profile));
+    }
+
+    /**
+     * Get the value of hitCount
+     *
+     * @return the value of hitCount
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the value of missCount
+     *
+     * @return the value of missCount
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * This method removes the cached result of the given query.
+     *
+     * @param key the query key
+     */
+    private void remove(Key key) {
+        CachedResult removed = results.remove(key);
+        if (removed != null) {
+            profileBytes.merge(key.profile, -removed.bytes, Long::sum);
+        }
+    }
+
+    /**
+     * This class identifies a query by its connection profile, its normalized
+     * text, and the literal values lifted from it.
+     */
+    public static class Key {
+
+        /**
+         * The identity of the connection profile
+         */
+        private final String profile;
+
+        /**
+         * The normalized statement text
+         */
+        private final String text;
+
+        /**
+         * The literal values lifted from the statement
+         */
+        private final List<Object> parameters;
+
+        /**
+         * This constructor sets the parts of the key.
+         *
+         * @param profile the identity of the connection profile
+         * @param text the normalized statement text
+         * @param parameters the literal values lifted from the statement
+         */
+        private Key(String profile, String text, List<Object> parameters) {
+            this.profile = profile;
+            this.text = text;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * profile.hashCode() + text.hashCode()) + parameters.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return profile.equals(other.profile) && text.equals(other.text) && parameters.equals(other.parameters);
+        }
+    }
+
+    /**
+     * This class holds a cached result with its size and the time it was
+     * read.
+     */
+    private static class CachedResult {
+
+        /**
+         * The complete result
+         */
+        private final ResultTable table;
+
+        /**
+         * The estimated number of bytes of the result
+         */
+        private final long bytes;
+
+        /**
+         * The time the result was read in milliseconds since the epoch
+         */
+        private final long time;
+
+        /**
+         * This constructor sets the result, its size and the time it was read.
+         *
+         * @param table the complete result
+         * @param bytes the estimated number of bytes of the result
+         * @param time the time the result was read
+         */
+        private CachedResult(ResultTable table, long bytes, long time) {
+            this.table = table;
+            this.bytes = bytes;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,667 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class stores the values of one result column. Integer, long and double
+ * columns keep their values in primitive arrays with a bitmap marking the
+ * nulls, and character columns keep a dictionary of their distinct strings
+ * while it stays small. Any other column keeps an array of objects. Each kind
+ * of column reads its values from a result set with the getter suited to it,
+ * so numbers are read without being boxed. A column given a value of a class
+ * it does not store, or whose getter fails, switches to an array of objects,
+ * so the values read back are always the values the driver returned.
+ *
+ * @author Bryan Daniel
+ */
+public abstract class ResultColumn {
+
+    /**
+     * The number of values the column has room for before it grows
+     */
+    protected int capacity;
+
+    /**
+     * The number of values added
+     */
+    protected int size;
+
+    /**
+     * The bitmap of the null values
+     */
+    protected long[] nulls;
+
+    /**
+     * The values of the column once it has switched to an array of objects,
+     * or null while the column stores its own type
+     */
+    private volatile Object[] objects;
+
+    /**
+     * This constructor creates a column with room for the given number of
+     * values.
+     *
+     * @param capacity the initial capacity
+     */
+    protected ResultColumn(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        nulls = new long[(this.capacity + 63) >>> 6];
+    }
+
+    /**
+     * This method creates a column for values of the given SQL type.
+     *
+     * @param sqlType the type from java.sql.Types
+     * @param capacity the initial capacity
+     * @return the column
+     */
+    public static ResultColumn create(int sqlType, int capacity) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return new IntColumn(capacity);
+            case Types.BIGINT:
+                return new LongColumn(capacity);
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return new DoubleColumn(capacity);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringColumn(capacity);
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return new ObjectColumn(capacity, true);
+            default:
+                return new ObjectColumn(capacity, false);
+        }
+    }
+
+    /**
+     * This method adds a value to the end of the column.
+     *
+     * @param value the value, which may be null
+     */
+    public void add(Object value) {
+
+        ensureCapacity(size + 1);
+        Object[] values = objects;
+        if (values == null && value != null && !accepts(value)) {
+            values = switchToObjects();
+        }
+        if (values != null) {
+            values[size] = value;
+        } else if (value == null) {
+            nulls[size >>> 6] |= 1L << size;
+        } else {
+            store(size, value);
+        }
+        size++;
+    }
+
+    /**
+     * This method reads the value of the given column of the current row of
+     * the given result set and adds it to the end of the column. Columns that
+     * store primitive values override this method to read them with typed
+     * getters.
+     *
+     * @param resultSet the result set positioned on a row
+     * @param index the column index in the result set, starting at one
+     * @throws SQLException if the value cannot be read
+     */
+    public void read(ResultSet resultSet, int index) throws SQLException {
+        add(resultSet.getObject(index));
+    }
+
+    /**
+     * This method determines whether the column has switched to an array of
+     * objects.
+     *
+     * @return true if values are stored as objects, false otherwise
+     */
+    protected boolean isStoringObjects() {
+        return objects != null;
+    }
+
+    /**
+     * This method makes room for one more value and returns its row index. The
+     * value must be stored there before the commitRow method is called.
+     *
+     * @return the row index of the next value
+     */
+    protected int nextRow() {
+        ensureCapacity(size + 1);
+        return size;
+    }
+
+    /**
+     * This method completes the row started with the nextRow method.
+     *
+     * @param isNull true if the value read was null
+     */
+    protected void commitRow(boolean isNull) {
+        if (isNull) {
+            nulls[size >>> 6] |= 1L << size;
+        }
+        size++;
+    }
+
+    /**
+     * This method returns the value at the given row.
+     *
+     * @param row the row index
+     * @return the value, or null
+     */
+    public Object get(int row) {
+        Object[] values = objects;
+        if (values != null) {
+            return values[row];
+        }
+        return isNull(row) ? null : load(row);
+    }
+
+    /**
+     * This method determines whether the value at the given row is null.
+     *
+     * @param row the row index
+     * @return true if the value is null, false otherwise
+     */
+    public boolean isNull(int row) {
+        Object[] values = objects;
+        if (values != null) {
+            return values[row] == null;
+        }
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Get the value of size
+     *
+     * @return the number of values added
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method estimates the number of bytes of heap used by the values
+     * of the column.
+     *
+     * @return the estimated number of bytes
+     */
+    public long estimateBytes() {
+        long bytes = 16 + nulls.length * 8L + estimateStoreBytes();
+        Object[] values = objects;
+        if (values == null) {
+            return bytes;
+        }
+        bytes += 16 + values.length * 4L;
+        for (int row = 0; row < size; row++) {
+            bytes += estimateObjectBytes(values[row]);
+        }
+        return bytes;
+    }
+
+    /**
+     * This method estimates the number of bytes of heap used by the given
+     * value.
+     *
+     * @param value the value
+     * @return the estimated number of bytes
+     */
+    protected static long estimateObjectBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (value instanceof BigDecimal) {
+            return 40 + ((BigDecimal) value).precision() / 2;
+        }
+        if (value instanceof Boolean) {
+            return 0;
+        }
+        return 24;
+    }
+
+    /**
+     * This method makes room for the given number of values, growing the
+     * arrays of the column if needed.
+     *
+     * @param minimumCapacity the number of values needed
+     */
+    private void ensureCapacity(int minimumCapacity) {
+        if (minimumCapacity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(minimumCapacity, capacity + (capacity >> 1));
+        nulls = Arrays.copyOf(nulls, (newCapacity + 63) >>> 6);
+        Object[] values = objects;
+        if (values != null) {
+            objects = Arrays.copyOf(values, newCapacity);
+        } else {
+            grow(newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * This method copies the values added so far into an array of objects,
+     * which stores every later value. The storage of the column is kept, as
+     * another thread may still be reading from it.
+     *
+     * @return the array of objects
+     */
+    private Object[] switchToObjects() {
+        Object[] values = new Object[capacity];
+        for (int row = 0; row < size; row++) {
+            values[row] = get(row);
+        }
+        objects = values;
+        return values;
+    }
+
+    /**
+     * This method determines whether the given value can be kept in the
+     * storage of this column.
+     *
+     * @param value the value, which is not null
+     * @return true if the value can be stored, false otherwise
+     */
+    protected abstract boolean accepts(Object value);
+
+    /**
+     * This method stores the given value at the given row.
+     *
+     * @param row the row index
+     * @param value the value, which is accepted and not null
+     */
+    protected abstract void store(int row, Object value);
+
+    /**
+     * This method returns the value stored at the given row.
+     *
+     * @param row the row index, which is not null
+     * @return the value
+     */
+    protected abstract Object load(int row);
+
+    /**
+     * This method grows the storage of the column to the given capacity.
+     *
+     * @param newCapacity the new capacity
+     */
+    protected abstract void grow(int newCapacity);
+
+    /**
+     * This method estimates the number of bytes of heap used by the storage
+     * of the column.
+     *
+     * @return the estimated number of bytes
+     */
+    protected abstract long estimateStoreBytes();
+
+    /**
+     * This column stores Integer values in an int array.
+     */
+    private static class IntColumn extends ResultColumn {
+
+        /**
+         * The values
+         */
+        private int[] values;
+
+        /**
+         * This constructor creates a column with the given capacity.
+         *
+         * @param capacity the initial capacity
+         */
+        private IntColumn(int capacity) {
+            super(capacity);
+            values = new int[this.capacity];
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int index) throws SQLException {
+            if (isStoringObjects()) {
+                super.read(resultSet, index);
+                return;
+            }
+            int row = nextRow();
+            try {
+                values[row] = resultSet.getInt(index);
+            } catch (SQLException ex) {
+                super.read(resultSet, index);
+                return;
+            }
+            commitRow(resultSet.wasNull());
+        }
+
+        @Override
+        protected boolean accepts(Object value) {
+            return value.getClass() == Integer.class;
+        }
+
+        @Override
+        protected void store(int row, Object value) {
+            values[row] = (Integer) value;
+        }
+
+        @Override
+        protected Object load(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long estimateStoreBytes() {
+            return 16 + values.length * 4L;
+        }
+    }
+
+    /**
+     * This column stores Long values in a long array.
+     */
+    private static class LongColumn extends ResultColumn {
+
+        /**
+         * The values
+         */
+        private long[] values;
+
+        /**
+         * This constructor creates a column with the given capacity.
+         *
+         * @param capacity the initial capacity
+         */
+        private LongColumn(int capacity) {
+            super(capacity);
+            values = new long[this.capacity];
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int index) throws SQLException {
+            if (isStoringObjects()) {
+                super.read(resultSet, index);
+                return;
+            }
+            int row = nextRow();
+            try {
+                values[row] = resultSet.getLong(index);
+            } catch (SQLException ex) {
+                super.read(resultSet, index);
+                return;
+            }
+            commitRow(resultSet.wasNull());
+        }
+
+        @Override
+        protected boolean accepts(Object value) {
+            return value.getClass() == Long.class;
+        }
+
+        @Override
+        protected void store(int row, Object value) {
+            values[row] = (Long) value;
+        }
+
+        @Override
+        protected Object load(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long estimateStoreBytes() {
+            return 16 + values.length * 8L;
+        }
+    }
+
+    /**
+     * This column stores Double values in a double array.
+     */
+    private static class DoubleColumn extends ResultColumn {
+
+        /**
+         * The values
+         */
+        private double[] values;
+
+        /**
+         * This constructor creates a column with the given capacity.
+         *
+         * @param capacity the initial capacity
+         */
+        private DoubleColumn(int capacity) {
+            super(capacity);
+            values = new double[this.capacity];
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int index) throws SQLException {
+            if (isStoringObjects()) {
+                super.read(resultSet, index);
+                return;
+            }
+            int row = nextRow();
+            try {
+                values[row] = resultSet.getDouble(index);
+            } catch (SQLException ex) {
+                super.read(resultSet, index);
+                return;
+            }
+            commitRow(resultSet.wasNull());
+        }
+
+        @Override
+        protected boolean accepts(Object value) {
+            return value.getClass() == Double.class;
+        }
+
+        @Override
+        protected void store(int row, Object value) {
+            values[row] = (Double) value;
+        }
+
+        @Override
+        protected Object load(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long estimateStoreBytes() {
+            return 16 + values.length * 8L;
+        }
+    }
+
+    /**
+     * This column stores strings as codes into a dictionary of the distinct
+     * strings. Once the dictionary is full, the column switches to an array of
+     * objects holding the strings themselves.
+     */
+    private static class StringColumn extends ResultColumn {
+
+        /**
+         * The maximum number of distinct strings in the dictionary
+         */
+        private static final int MAX_DICTIONARY_SIZE = 4096;
+
+        /**
+         * The dictionary codes of the values
+         */
+        private int[] codes;
+
+        /**
+         * The distinct strings in code order
+         */
+        private String[] dictionary;
+
+        /**
+         * The codes of the distinct strings
+         */
+        private Map<String, Integer> dictionaryCodes;
+
+        /**
+         * This constructor creates a column with the given capacity.
+         *
+         * @param capacity the initial capacity
+         */
+        private StringColumn(int capacity) {
+            super(capacity);
+            codes = new int[this.capacity];
+            dictionary = new String[16];
+            dictionaryCodes = new HashMap<>();
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int index) throws SQLException {
+            add(resultSet.getString(index));
+        }
+
+        @Override
+        protected boolean accepts(Object value) {
+            return value instanceof String
+                    && (dictionaryCodes.size() < MAX_DICTIONARY_SIZE || dictionaryCodes.containsKey(value));
+        }
+
+        @Override
+        protected void store(int row, Object value) {
+            Integer code = dictionaryCodes.get(value);
+            if (code == null) {
+                code = dictionaryCodes.size();
+                if (code == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, code * 2);
+                }
+                dictionary[code] = (String) value;
+                dictionaryCodes.put((String) value, code);
+            }
+            codes[row] = code;
+        }
+
+        @Override
+        protected Object load(int row) {
+            return dictionary[codes[row]];
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            codes = Arrays.copyOf(codes, newCapacity);
+        }
+
+        @Override
+        protected long estimateStoreBytes() {
+            long bytes = 16 + codes.length * 4L + 16 + dictionary.length * 4L
+                    + 48 + dictionaryCodes.size() * 48L;
+            for (int code = 0; code < dictionaryCodes.size(); code++) {
+                bytes += estimateObjectBytes(dictionary[code]);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * This column stores values of any other type in an array of objects.
+     * Binary values are read as byte arrays.
+     */
+    private static class ObjectColumn extends ResultColumn {
+
+        /**
+         * The values
+         */
+        private Object[] values;
+
+        /**
+         * True if the values are read with getBytes
+         */
+        private final boolean binary;
+
+        /**
+         * This constructor creates a column with the given capacity.
+         *
+         * @param capacity the initial capacity
+         * @param binary true if the values are read with getBytes
+         */
+        private ObjectColumn(int capacity, boolean binary) {
+            super(capacity);
+            values = new Object[this.capacity];
+            this.binary = binary;
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int index) throws SQLException {
+            add(binary ? resultSet.getBytes(index) : resultSet.getObject(index));
+        }
+
+        @Override
+        protected boolean accepts(Object value) {
+            return true;
+        }
+
+        @Override
+        protected void store(int row, Object value) {
+            values[row] = value;
+        }
+
+        @Override
+        protected Object load(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long estimateStoreBytes() {
+            long bytes = 16 + values.length * 4L;
+            for (int row = 0; row < size; row++) {
+                bytes += estimateObjectBytes(values[row]);
+            }
+            return bytes;
+        }
+    }
+}
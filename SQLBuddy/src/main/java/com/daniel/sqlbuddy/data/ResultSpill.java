@@ -0,0 +1,495 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class keeps pages of result rows in a temporary file, so results
+ * larger than the memory budget can still be shown. Each page is written as a
+ * run of rows in a compact binary format, where every value is a type tag
+ * followed by its bytes. Pages are read back through a memory-mapped view of
+ * their part of the file. Values of classes without a tag of their own are
+ * stored as their text. The file is deleted when the spill is closed, and the
+ * files of spills still open when the application exits are deleted then.
+ *
+ * @author Bryan Daniel
+ */
+public class ResultSpill implements Closeable {
+
+    /**
+     * The tag of a null value
+     */
+    private static final byte NULL = 0;
+
+    /**
+     * The tag of an Integer value
+     */
+    private static final byte INTEGER = 1;
+
+    /**
+     * The tag of a Long value
+     */
+    private static final byte LONG = 2;
+
+    /**
+     * The tag of a Double value
+     */
+    private static final byte DOUBLE = 3;
+
+    /**
+     * The tag of a String value
+     */
+    private static final byte STRING = 4;
+
+    /**
+     * The tag of a byte array value
+     */
+    private static final byte BYTES = 5;
+
+    /**
+     * The tag of a BigDecimal value
+     */
+    private static final byte BIG_DECIMAL = 6;
+
+    /**
+     * The tag of a BigInteger value
+     */
+    private static final byte BIG_INTEGER = 7;
+
+    /**
+     * The tag of a Boolean value
+     */
+    private static final byte BOOLEAN = 8;
+
+    /**
+     * The tag of a Short value
+     */
+    private static final byte SHORT = 9;
+
+    /**
+     * The tag of a Byte value
+     */
+    private static final byte BYTE = 10;
+
+    /**
+     * The tag of a Float value
+     */
+    private static final byte FLOAT = 11;
+
+    /**
+     * The tag of a java.sql.Timestamp value
+     */
+    private static final byte TIMESTAMP = 12;
+
+    /**
+     * The tag of a java.sql.Date value
+     */
+    private static final byte DATE = 13;
+
+    /**
+     * The tag of a java.sql.Time value
+     */
+    private static final byte TIME = 14;
+
+    /**
+     * The files of the spills not yet closed, deleted when the application
+     * exits
+     */
+    private static final Set<File> OPEN_FILES = new HashSet<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ResultSpill::deleteOpenFiles));
+    }
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * The names of the columns
+     */
+    private final String[] columnNames;
+
+    /**
+     * The SQL types of the columns
+     */
+    private final int[] columnTypes;
+
+    /**
+     * The temporary file
+     */
+    private final File file;
+
+    /**
+     * The channel of the temporary file
+     */
+    private final FileChannel channel;
+
+    /**
+     * The buffer pages are encoded into before they are written
+     */
+    private final ByteArrayOutputStream pageBytes;
+
+    /**
+     * The stream encoding values into the page buffer
+     */
+    private final DataOutputStream pageOutput;
+
+    /**
+     * The file offset of each page keyed by page number, or -1 if the page
+     * has not been written
+     */
+    private long[] pageOffsets;
+
+    /**
+     * The number of bytes of each page keyed by page number
+     */
+    private int[] pageLengths;
+
+    /**
+     * The number of rows of each page keyed by page number
+     */
+    private int[] pageRowCounts;
+
+    /**
+     * The number of bytes written to the file
+     */
+    private long length;
+
+    /**
+     * True once the spill is closed
+     */
+    private boolean closed;
+
+    /**
+     * This constructor creates the temporary file for rows with the given
+     * columns.
+     *
+     * @param columnNames the names of the columns
+     * @param columnTypes the SQL types of the columns from java.sql.Types
+     * @throws IOException if the temporary file cannot be created
+     */
+    public ResultSpill(String[] columnNames, int[] columnTypes) throws IOException {
+        logger = LogManager.getLogger(ResultSpill.class);
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        file = File.createTempFile("sqlbuddy-result-", ".bin");
+        synchronized (OPEN_FILES) {
+            OPEN_FILES.add(file);
+        }
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        pageBytes = new ByteArrayOutputStream(1 << 16);
+        pageOutput = new DataOutputStream(pageBytes);
+        pageOffsets = new long[16];
+        pageLengths = new int[16];
+        pageRowCounts = new int[16];
+        Arrays.fill(pageOffsets, -1);
+    }
+
+    /**
+     * This method writes rows of the given table as the given page, appending
+     * them to the file.
+     *
+     * @param page the page number
+     * @param rows the table holding the rows
+     * @param firstRow the index in the table of the first row of the page
+     * @param rowCount the number of rows in the page
+     * @throws IOException if the rows cannot be written
+     */
+    public synchronized void writePage(int page, ResultTable rows, int firstRow, int rowCount)
+            throws IOException {
+
+        if (closed) {
+            throw new IOException("The result spill file has been closed.");
+        }
+        pageBytes.reset();
+        for (int row = firstRow; row < firstRow + rowCount; row++) {
+            for (int column = 0; column < columnNames.length; column++) {
+                writeValue(rows.getValueAt(row, column));
+            }
+        }
+        pageOutput.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(pageBytes.toByteArray());
+        long offset = length;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        length += buffer.limit();
+        ensurePageCapacity(page + 1);
+        pageOffsets[page] = offset;
+        pageLengths[page] = buffer.limit();
+        pageRowCounts[page] = rowCount;
+    }
+
+    /**
+     * This method determines whether the given page has been written.
+     *
+     * @param page the page number
+     * @return true if the page can be read, false otherwise
+     */
+    public synchronized boolean hasPage(int page) {
+        return page < pageOffsets.length && pageOffsets[page] != -1;
+    }
+
+    /**
+     * This method reads the given page from the file.
+     *
+     * @param page the page number
+     * @return a new table holding the rows of the page
+     * @throws IOException if the page has not been written or cannot be read
+     */
+    public synchronized ResultTable readPage(int page) throws IOException {
+
+        if (closed || !hasPage(page)) {
+            throw new IOException("Page " + page + " of the result is not in the spill file.");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pageOffsets[page],
+                pageLengths[page]);
+        ResultTable rows = new ResultTable(columnNames, columnTypes, pageRowCounts[page]);
+        Object[] values = new Object[columnNames.length];
+        for (int row = 0; row < pageRowCounts[page]; row++) {
+            for (int column = 0; column < values.length; column++) {
+                values[column] = readValue(buffer);
+            }
+            rows.addRow(values);
+        }
+        return rows;
+    }
+
+    /**
+     * Get the value of length
+     *
+     * @return the number of bytes written to the file
+     */
+    public synchronized long getLength() {
+        return length;
+    }
+
+    /**
+     * This method closes the file and deletes it. A file that cannot be
+     * deleted yet, because a page of it is still mapped, is deleted when the
+     * application exits.
+     */
+    @Override
+    public synchronized void close() {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            logger.error("IOException occurred while closing the result spill file.", ex);
+        }
+        synchronized (OPEN_FILES) {
+            OPEN_FILES.remove(file);
+        }
+        if (!file.delete()) {
+            file.deleteOnExit();
+            logger.debug("The result spill file will be deleted on exit: " + file);
+        }
+    }
+
+    /**
+     * This method deletes the files of the spills not yet closed. It is run
+     * when the application exits.
+     */
+    private static void deleteOpenFiles() {
+        List<File> files;
+        synchronized (OPEN_FILES) {
+            files = new ArrayList<>(OPEN_FILES);
+            OPEN_FILES.clear();
+        }
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * This method encodes the given value into the page buffer.
+     *
+     * @param value the value
+     * @throws IOException if the value cannot be encoded
+     */
+    private void writeValue(Object value) throws IOException {
+
+        if (value == null) {
+            pageOutput.writeByte(NULL);
+        } else if (value instanceof Integer) {
+            pageOutput.writeByte(INTEGER);
+            pageOutput.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            pageOutput.writeByte(LONG);
+            pageOutput.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            pageOutput.writeByte(DOUBLE);
+            pageOutput.writeDouble((Double) value);
+        } else if (value instanceof byte[]) {
+            pageOutput.writeByte(BYTES);
+            writeBytes((byte[]) value);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            pageOutput.writeByte(BIG_DECIMAL);
+            pageOutput.writeInt(decimal.scale());
+            writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger) {
+            pageOutput.writeByte(BIG_INTEGER);
+            writeBytes(((BigInteger) value).toByteArray());
+        } else if (value instanceof Boolean) {
+            pageOutput.writeByte(BOOLEAN);
+            pageOutput.writeBoolean((Boolean) value);
+        } else if (value instanceof Short) {
+            pageOutput.writeByte(SHORT);
+            pageOutput.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            pageOutput.writeByte(BYTE);
+            pageOutput.writeByte((Byte) value);
+        } else if (value instanceof Float) {
+            pageOutput.writeByte(FLOAT);
+            pageOutput.writeFloat((Float) value);
+        } else if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            pageOutput.writeByte(TIMESTAMP);
+            pageOutput.writeLong(timestamp.getTime());
+            pageOutput.writeInt(timestamp.getNanos());
+        } else if (value instanceof java.sql.Date) {
+            pageOutput.writeByte(DATE);
+            pageOutput.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            pageOutput.writeByte(TIME);
+            pageOutput.writeLong(((Time) value).getTime());
+        } else {
+            pageOutput.writeByte(STRING);
+            writeBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * This method encodes the given bytes into the page buffer, preceded by
+     * their count.
+     *
+     * @param bytes the bytes
+     * @throws IOException if the bytes cannot be encoded
+     */
+    private void writeBytes(byte[] bytes) throws IOException {
+        pageOutput.writeInt(bytes.length);
+        pageOutput.write(bytes);
+    }
+
+    /**
+     * This method decodes the next value of the given page buffer.
+     *
+     * @param buffer the mapped page
+     * @return the value
+     * @throws IOException if the page holds an unknown tag
+     */
+    private static Object readValue(ByteBuffer buffer) throws IOException {
+
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INTEGER:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case STRING:
+                return new String(readBytes(buffer), StandardCharsets.UTF_8);
+            case BYTES:
+                return readBytes(buffer);
+            case BIG_DECIMAL:
+                int scale = buffer.getInt();
+                return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(buffer));
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case SHORT:
+                return buffer.getShort();
+            case BYTE:
+                return buffer.get();
+            case FLOAT:
+                return buffer.getFloat();
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(buffer.getLong());
+                timestamp.setNanos(buffer.getInt());
+                return timestamp;
+            case DATE:
+                return new java.sql.Date(buffer.getLong());
+            case TIME:
+                return new Time(buffer.getLong());
+            default:
+                throw new IOException("The result spill file holds an unknown value tag: " + tag);
+        }
+    }
+
+    /**
+     * This method decodes bytes preceded by their count from the given page
+     * buffer.
+     *
+     * @param buffer the mapped page
+     * @return the bytes
+     */
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * This method grows the page index to hold at least the given number of
+     * pages.
+     *
+     * @param pageCount the number of pages
+     */
+    private void ensurePageCapacity(int pageCount) {
+
+        if (pageCount <= pageOffsets.length) {
+            return;
+        }
+        int capacity = Math.max(pageCount, pageOffsets.length * 2);
+        int previousCapacity = pageOffsets.length;
+        pageOffsets = Arrays.copyOf(pageOffsets, capacity);
+        Arrays.fill(pageOffsets, previousCapacity, capacity, -1);
+        pageLengths = Arrays.copyOf(pageLengths, capacity);
+        pageRowCounts = Arrays.copyOf(pageRowCounts, capacity);
+    }
+}
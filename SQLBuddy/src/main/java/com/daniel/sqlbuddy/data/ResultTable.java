@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * This class stores rows of a result set column by column, with each column
+ * chosen from the SQL type of the result column. A table is filled by one
+ * thread. Another thread may read the rows added before a point it has
+ * synchronized with, as long as the table was created with room for all of
+ * its rows.
+ *
+ * @author Bryan Daniel
+ */
+public class ResultTable {
+
+    /**
+     * The names of the columns
+     */
+    private final String[] columnNames;
+
+    /**
+     * The SQL types of the columns
+     */
+    private final int[] columnTypes;
+
+    /**
+     * The columns
+     */
+    private final ResultColumn[] columns;
+
+    /**
+     * The number of rows added
+     */
+    private int rowCount;
+
+    /**
+     * This constructor creates an empty table with room for the given number
+     * of rows.
+     *
+     * @param columnNames the names of the columns
+     * @param columnTypes the SQL types of the columns from java.sql.Types
+     * @param capacity the initial number of rows the table has room for
+     */
+    public ResultTable(String[] columnNames, int[] columnTypes, int capacity) {
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        columns = new ResultColumn[columnNames.length];
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = ResultColumn.create(columnTypes[column], capacity);
+        }
+    }
+
+    /**
+     * This method creates an empty table for the columns described by the
+     * given metadata.
+     *
+     * @param metaData the result set metadata
+     * @param capacity the initial number of rows the table has room for
+     * @return the table
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static ResultTable create(ResultSetMetaData metaData, int capacity) throws SQLException {
+        return new ResultTable(readColumnNames(metaData), readColumnTypes(metaData), capacity);
+    }
+
+    /**
+     * This method reads the names of the columns described by the given
+     * metadata.
+     *
+     * @param metaData the result set metadata
+     * @return the names of the columns
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static String[] readColumnNames(ResultSetMetaData metaData) throws SQLException {
+        String[] columnNames = new String[metaData.getColumnCount()];
+        for (int column = 1; column <= columnNames.length; column++) {
+            columnNames[column - 1] = metaData.getColumnName(column);
+        }
+        return columnNames;
+    }
+
+    /**
+     * This method reads the SQL types of the columns described by the given
+     * metadata, which choose how each column is read and stored. Unsigned
+     * integers are given the next wider type, as their values may not fit in
+     * the signed type.
+     *
+     * @param metaData the result set metadata
+     * @return the SQL types of the columns from java.sql.Types
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static int[] readColumnTypes(ResultSetMetaData metaData) throws SQLException {
+        int[] columnTypes = new int[metaData.getColumnCount()];
+        for (int column = 1; column <= columnTypes.length; column++) {
+            int columnType = metaData.getColumnType(column);
+            if ((columnType == Types.INTEGER || columnType == Types.BIGINT) && !isSigned(metaData, column)) {
+                columnType = columnType == Types.INTEGER ? Types.BIGINT : Types.NUMERIC;
+            }
+            columnTypes[column - 1] = columnType;
+        }
+        return columnTypes;
+    }
+
+    /**
+     * This method determines whether the given numeric column is signed,
+     * assuming it is when the driver cannot tell.
+     *
+     * @param metaData the result set metadata
+     * @param column the column index, starting at one
+     * @return true if the column is signed, false otherwise
+     */
+    private static boolean isSigned(ResultSetMetaData metaData, int column) {
+        try {
+            return metaData.isSigned(column);
+        } catch (SQLException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * This method adds the current row of the given result set to the end of
+     * the table, reading each value with the getter of its column.
+     *
+     * @param resultSet the result set positioned on a row
+     * @throws SQLException if the row cannot be read
+     */
+    public void addRow(ResultSet resultSet) throws SQLException {
+        for (int column = 0; column < columns.length; column++) {
+            columns[column].read(resultSet, column + 1);
+        }
+        rowCount++;
+    }
+
+    /**
+     * This method adds a row holding the given values to the end of the
+     * table.
+     *
+     * @param values the value of each column
+     */
+    public void addRow(Object[] values) {
+        for (int column = 0; column < columns.length; column++) {
+            columns[column].add(values[column]);
+        }
+        rowCount++;
+    }
+
+    /**
+     * This method returns the value at the given cell.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the value, or null
+     */
+    public Object getValueAt(int row, int column) {
+        return columns[column].get(row);
+    }
+
+    /**
+     * Get the value of rowCount
+     *
+     * @return the number of rows added
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This method returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * This method returns the name of the given column.
+     *
+     * @param column the column index
+     * @return the column name
+     */
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * Get the value of columnNames
+     *
+     * @return the names of the columns
+     */
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Get the value of columnTypes
+     *
+     * @return the SQL types of the columns
+     */
+    public int[] getColumnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * This method estimates the number of bytes of heap used by the values in
+     * the table.
+     *
+     * @return the estimated number of bytes
+     */
+    public long estimateBytes() {
+        long bytes = 0;
+        for (ResultColumn column : columns) {
+            bytes += column.estimateBytes();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * This table model shows the rows of a filled ResultTable. A model showing a
+ * result taken from the result cache records when the result was read.
+ *
+ * @author Bryan Daniel
+ */
+public class ResultTableModel extends AbstractTableModel {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The table of results
+     */
+    private final ResultTable table;
+
+    /**
+     * The time a cached result was read in milliseconds since the epoch, or
+     * zero if the result was just read
+     */
+    private final long cachedTime;
+
+    /**
+     * This constructor sets the table of results.
+     *
+     * @param table the table of results
+     */
+    public ResultTableModel(ResultTable table) {
+        this(table, 0);
+    }
+
+    /**
+     * This constructor sets the table of results and the time a cached result
+     * was read.
+     *
+     * @param table the table of results
+     * @param cachedTime the time the cached result was read, or zero if the
+     * result was just read
+     */
+    public ResultTableModel(ResultTable table, long cachedTime) {
+        this.table = table;
+        this.cachedTime = cachedTime;
+    }
+
+    /**
+     * This method returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    @Override
+    public int getRowCount() {
+        return table.getRowCount();
+    }
+
+    /**
+     * This method returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    @Override
+    public int getColumnCount() {
+        return table.getColumnCount();
+    }
+
+    /**
+     * This method returns the name of the given column.
+     *
+     * @param column the column index
+     * @return the column name
+     */
+    @Override
+    public String getColumnName(int column) {
+        return table.getColumnName(column);
+    }
+
+    /**
+     * This method returns the value at the given cell.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the cell value
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        return table.getValueAt(row, column);
+    }
+
+    /**
+     * Get the value of table
+     *
+     * @return the table of results
+     */
+    public ResultTable getTable() {
+        return table;
+    }
+
+    /**
+     * This method determines whether the result was taken from the result
+     * cache.
+     *
+     * @return true if the result is cached, false otherwise
+     */
+    public boolean isCached() {
+        return cachedTime != 0;
+    }
+
+    /**
+     * Get the value of cachedTime
+     *
+     * @return the time the cached result was read, or zero if the result was
+     * just read
+     */
+    public long getCachedTime() {
+        return cachedTime;
+    }
+}
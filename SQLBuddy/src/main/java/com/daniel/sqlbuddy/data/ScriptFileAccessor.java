@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This data-access class executes the statements of a script file without
+ * loading the file into memory. The file is read through a channel in fixed
+ * size blocks, decoded with the character set of the connection profile, and
+ * split by a StatementLexer while the statements already found are executed.
+ * Files ending in .gz are decompressed as they are read. Update counts are
+ * totalled rather than kept for each statement, so the memory used does not
+ * grow with the size of the file.
+ *
+ * @author Bryan Daniel
+ */
+public class ScriptFileAccessor extends BaseDataAccessor {
+
+    /**
+     * The extension of compressed script files
+     */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * The number of bytes read from the file at a time
+     */
+    public static final int BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * The number of milliseconds between progress reports
+     */
+    public static final long PROGRESS_INTERVAL_MILLISECONDS = 250L;
+
+    /**
+     * The byte order mark that may begin the decoded text
+     */
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /**
+     * The number of bytes read from the file
+     */
+    private volatile long bytesRead;
+
+    /**
+     * The size of the file in bytes
+     */
+    private long totalBytes;
+
+    /**
+     * The number of statements executed
+     */
+    private long statementCount;
+
+    /**
+     * The total number of records updated
+     */
+    private volatile long updatedRecordCount;
+
+    /**
+     * The time of the last progress report
+     */
+    private long lastProgressTime;
+
+    /**
+     * The receiver of the progress messages
+     */
+    private Consumer<String> progress;
+
+    /**
+     * This method executes the statements in the given file on a pooled
+     * connection and returns the result sets followed by a summary of the
+     * execution.
+     *
+     * @param file the script file
+     * @param properties the database connection properties
+     * @param progress the receiver of the progress messages
+     * @return the list of results
+     */
+    public ArrayList<Object> executeFile(File file, ConnectionProperties properties, Consumer<String> progress) {
+
+        logger.info("Executing file " + file.getName() + ".");
+        this.progress = progress;
+        configure(properties);
+        totalBytes = file.length();
+        ArrayList<Object> allResults = new ArrayList<>();
+        String databaseType = properties.getProperty(ConnectionProperties.DATABASE_TYPE);
+        Charset charset = getCharset(properties);
+        Connection connection = null;
+
+        try {
+            connection = borrowConnection();
+            StatementQueue statements = produceStatements((StatementQueue queue) -> {
+                readStatements(file, charset, databaseType, queue);
+            });
+            executeStatements(connection, statements, allResults);
+            addStatementCacheReport(connection, allResults);
+        } catch (SQLException e) {
+            logger.error("SQLException occurred during ScriptFileAccessor.executeFile.", e);
+            addResult(e.getMessage(), allResults);
+        } finally {
+            releaseConnection(connection);
+        }
+        addResult(createSummary(), allResults);
+        return allResults;
+    }
+
+    /**
+     * This method executes the statements of the file. A failure names the
+     * number of the statement in the file, which follows the statements
+     * counted as executed.
+     *
+     * @param connection the database connection
+     * @param statements the statement queue
+     * @param allResults the result list
+     * @throws SQLException
+     */
+    @Override
+    protected void executeStatements(Connection connection, StatementQueue statements, ArrayList<Object> allResults) throws SQLException {
+        try {
+            super.executeStatements(connection, statements, allResults);
+        } catch (SQLException ex) {
+            if (statements.getFailure() != null && ex.getCause() == statements.getFailure()) {
+                throw ex;
+            }
+            throw new SQLException("Statement " + (statementCount + 1) + " failed: " + ex.getMessage(),
+                    ex.getSQLState(), ex.getErrorCode(), ex);
+        }
+    }
+
+    /**
+     * This method counts the executed statements and reports the progress of
+     * the file.
+     *
+     * @param count the number of statements executed
+     */
+    @Override
+    protected void statementsExecuted(int count) {
+        statementCount += count;
+        long now = System.currentTimeMillis();
+        if (now - lastProgressTime >= PROGRESS_INTERVAL_MILLISECONDS) {
+            lastProgressTime = now;
+            progress.accept(createSummary());
+        }
+    }
+
+    /**
+     * This method adds the update count to the total rather than to the
+     * result list. Parallel queries may call this from several threads.
+     *
+     * @param updateCount the number of records updated
+     * @param allResults the result list
+     */
+    @Override
+    protected synchronized void addUpdateCount(int updateCount, ArrayList<Object> allResults) {
+        if (updateCount > 0) {
+            updatedRecordCount += updateCount;
+        }
+    }
+
+    /**
+     * This method reads the given file block by block and puts the statements
+     * found into the given queue. Only the text of the statement being read is
+     * kept between blocks. The lexer is run again only once the pending text
+     * has doubled, so a single large statement does not cause its text to be
+     * scanned once for every block.
+     *
+     * @param file the script file
+     * @param charset the character set of the file
+     * @param databaseType the database type whose SQL rules apply
+     * @param statements the statement queue
+     * @throws IOException if the file cannot be read
+     * @throws InterruptedException if the reading thread is interrupted
+     */
+    private void readStatements(File file, Charset charset, String databaseType, StatementQueue statements)
+            throws IOException, InterruptedException {
+
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                ReadableByteChannel channel = file.getName().toLowerCase().endsWith(GZIP_EXTENSION)
+                ? Channels.newChannel(new GZIPInputStream(Channels.newInputStream(fileChannel), BLOCK_SIZE))
+                : fileChannel) {
+
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            ByteBuffer bytes = ByteBuffer.allocateDirect(BLOCK_SIZE);
+            CharBuffer chars = CharBuffer.allocate(BLOCK_SIZE);
+            StringBuilder pendingText = new StringBuilder();
+            String delimiter = StatementLexer.DEFAULT_DELIMITER;
+            int lexLength = 0;
+            boolean startOfText = true;
+            boolean endOfInput = false;
+
+            while (!endOfInput) {
+                endOfInput = channel.read(bytes) < 0;
+                bytesRead = fileChannel.position();
+                // called through Buffer, whose Java 9 ByteBuffer overrides do not exist on Java 8
+                ((Buffer) bytes).flip();
+                decode(decoder, bytes, chars, pendingText, endOfInput);
+                bytes.compact();
+                if (startOfText && pendingText.length() > 0) {
+                    startOfText = false;
+                    if (pendingText.charAt(0) == BYTE_ORDER_MARK) {
+                        pendingText.deleteCharAt(0);
+                    }
+                }
+                if (!endOfInput && pendingText.length() < lexLength) {
+                    continue;
+                }
+                StatementLexer lexer = new StatementLexer(pendingText, databaseType, endOfInput);
+                lexer.setDelimiter(delimiter);
+                while (lexer.next()) {
+                    if (!statements.put(lexer.getStatement())) {
+                        return;
+                    }
+                }
+                delimiter = lexer.getDelimiter();
+                pendingText.delete(0, lexer.getPosition());
+                lexLength = pendingText.length() * 2;
+            }
+        }
+    }
+
+    /**
+     * This method decodes the given bytes and appends the characters to the
+     * given text.
+     *
+     * @param decoder the character set decoder
+     * @param bytes the bytes to decode
+     * @param chars the buffer for decoded characters
+     * @param text the text receiving the characters
+     * @param endOfInput true if no bytes follow, false otherwise
+     */
+    private static void decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, StringBuilder text,
+            boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, endOfInput);
+            ((Buffer) chars).flip();
+            text.append(chars);
+            ((Buffer) chars).clear();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            do {
+                result = decoder.flush(chars);
+                ((Buffer) chars).flip();
+                text.append(chars);
+                ((Buffer) chars).clear();
+            } while (result.isOverflow());
+        }
+    }
+
+    /**
+     * This method returns the character set of script files set in the given
+     * properties, or UTF-8 if none is set or the name is not supported.
+     *
+     * @param properties the database connection properties
+     * @return the character set
+     */
+    private Charset getCharset(ConnectionProperties properties) {
+        String name = properties.getProperty(ConnectionProperties.SCRIPT_CHARSET);
+        if (name == null) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(name.trim());
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+            logger.error("The script character set " + name + " is not supported. Using UTF-8.", ex);
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    /**
+     * This method creates the message describing the progress of the file.
+     *
+     * @return the progress message
+     */
+    private String createSummary() {
+        long percent = totalBytes > 0 ? bytesRead * 100 / totalBytes : 100;
+        return "Statements executed: " + statementCount + ", total records updated: " + updatedRecordCount
+                + ", read " + bytesRead / 1024 + " of " + totalBytes / 1024 + " KB (" + percent + "%)";
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This table model shows the rows of a result that was written to a
+ * temporary file because it did not fit in the memory budget. Pages are read
+ * from the file as the table asks for them, and only a bounded number of
+ * pages is kept in memory. The file is deleted when the model is closed.
+ *
+ * @author Bryan Daniel
+ */
+public class SpilledTableModel extends AbstractTableModel implements Closeable {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * The file holding the rows
+     */
+    private final ResultSpill spill;
+
+    /**
+     * The names of the columns
+     */
+    private final String[] columnNames;
+
+    /**
+     * The number of rows
+     */
+    private final int rowCount;
+
+    /**
+     * The number of rows in a page
+     */
+    private final int pageSize;
+
+    /**
+     * The maximum number of pages kept in memory
+     */
+    private final int windowPages;
+
+    /**
+     * The pages in memory keyed by page number, in least recently used order
+     */
+    private final Map<Integer, ResultTable> pages;
+
+    /**
+     * This constructor sets the file holding the rows, which must hold every
+     * page of the result.
+     *
+     * @param spill the file holding the rows
+     * @param columnNames the names of the columns
+     * @param rowCount the number of rows
+     * @param pageSize the number of rows in a page
+     * @param windowPages the maximum number of pages kept in memory
+     */
+    public SpilledTableModel(ResultSpill spill, String[] columnNames, int rowCount, int pageSize,
+            int windowPages) {
+        logger = LogManager.getLogger(SpilledTableModel.class);
+        this.spill = spill;
+        this.columnNames = columnNames;
+        this.rowCount = rowCount;
+        this.pageSize = Math.max(1, pageSize);
+        this.windowPages = Math.max(2, windowPages);
+        pages = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * This method returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This method returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * This method returns the name of the given column.
+     *
+     * @param column the column index
+     * @return the column name
+     */
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * This method returns the value at the given cell, reading its page from
+     * the file if it is not in memory.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the cell value, or null if its page cannot be read
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+
+        int page = row / pageSize;
+        ResultTable rows = pages.get(page);
+        if (rows == null) {
+            try {
+                rows = spill.readPage(page);
+            } catch (IOException ex) {
+                logger.error("IOException occurred while reading result rows from the spill file.", ex);
+                return null;
+            }
+            pages.put(page, rows);
+            if (pages.size() > windowPages) {
+                pages.remove(pages.keySet().iterator().next());
+            }
+        }
+        return rows.getValueAt(row % pageSize, column);
+    }
+
+    /**
+     * Get the number of bytes of the spill file
+     *
+     * @return the number of bytes the rows take on disk
+     */
+    public long getSpilledBytes() {
+        return spill.getLength();
+    }
+
+    /**
+     * This method estimates the number of bytes of heap used by the pages in
+     * memory.
+     *
+     * @return the estimated number of bytes
+     */
+    public long estimateBytes() {
+        long bytes = 0;
+        for (ResultTable rows : pages.values()) {
+            bytes += rows.estimateBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * This method drops the pages in memory. They are read from the file
+     * again when they are shown.
+     */
+    public void releasePages() {
+        pages.clear();
+    }
+
+    /**
+     * This method drops the rows in memory and deletes the file holding the
+     * rows.
+     */
+    @Override
+    public void close() {
+        pages.clear();
+        spill.close();
+    }
+}
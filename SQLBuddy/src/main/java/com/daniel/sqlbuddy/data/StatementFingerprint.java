@@ -0,0 +1,398 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import com.daniel.sqlbuddy.util.QueryUtil;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class holds the normalized form of a statement, in which the string
+ * and numeric literals used as values are replaced by bind parameters and
+ * runs of whitespace are collapsed. Statements differing only in those
+ * literals share the same normalized text, so a prepared statement made for
+ * one can be reused for the others.
+ *
+ * Literals are lifted only where a bind parameter is certain to mean the same
+ * thing: after a comparison or arithmetic operator, after a keyword such as
+ * LIKE, AND, or THEN, and inside VALUES and IN lists. Literals that are part
+ * of the statement structure, such as ORDER BY positions, TOP and LIMIT
+ * counts, type lengths, and typed literals like DATE '2017-01-01', are kept.
+ *
+ * @author Bryan Daniel
+ */
+public class StatementFingerprint {
+
+    /**
+     * The maximum number of literals lifted from one statement
+     */
+    public static final int MAX_PARAMETERS = 1000;
+
+    /**
+     * The leading keywords of the statements that are normalized
+     */
+    private static final Set<String> NORMALIZED_STATEMENTS = new HashSet<>(Arrays.asList(
+            "SELECT", "WITH", "INSERT", "UPDATE", "DELETE", "MERGE", "REPLACE"));
+
+    /**
+     * The keywords after which a literal is a value
+     */
+    private static final Set<String> VALUE_KEYWORDS = new HashSet<>(Arrays.asList(
+            "LIKE", "AND", "OR", "NOT", "WHEN", "THEN", "ELSE", "BETWEEN"));
+
+    /**
+     * The keywords whose parenthesized lists hold values
+     */
+    private static final Set<String> VALUE_LISTS = new HashSet<>(Arrays.asList("VALUES", "IN"));
+
+    /**
+     * The operator characters after which a literal is a value
+     */
+    private static final String VALUE_OPERATORS = "=<>!+-*/%|";
+
+    /**
+     * The normalized statement text
+     */
+    private final String text;
+
+    /**
+     * The values of the lifted literals in parameter order
+     */
+    private final List<Object> parameters;
+
+    /**
+     * This constructor sets the normalized text and parameter values.
+     *
+     * @param text the normalized statement text
+     * @param parameters the parameter values
+     */
+    private StatementFingerprint(String text, List<Object> parameters) {
+        this.text = text;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Get the value of text
+     *
+     * @return the value of text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the value of parameters
+     *
+     * @return the value of parameters
+     */
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * This method determines whether the normalized text holds a single
+     * statement, ignoring semicolons at its end.
+     *
+     * @return true if the text holds one statement, false otherwise
+     */
+    public boolean isSingleStatement() {
+        String statement = text;
+        while (statement.endsWith(";")) {
+            statement = statement.substring(0, statement.length() - 1).trim();
+        }
+        return statement.indexOf(';') < 0;
+    }
+
+    /**
+     * This method normalizes the given statement. Only queries and data
+     * manipulation statements are normalized. Statements that already hold
+     * bind parameters, or that would need more than MAX_PARAMETERS, are not.
+     *
+     * @param statement the statement
+     * @param databaseType the database type whose SQL rules apply
+     * @return the fingerprint, or null if the statement is not normalized
+     */
+    public static StatementFingerprint create(String statement, String databaseType) {
+
+        if (!NORMALIZED_STATEMENTS.contains(QueryUtil.getFirstKeyword(statement))) {
+            return null;
+        }
+        boolean mysql = ConnectionProperties.MYSQL.equals(databaseType);
+        boolean sqlServer = ConnectionProperties.MS_SQL.equals(databaseType);
+        int length = statement.length();
+        StringBuilder text = new StringBuilder(length);
+        List<Object> parameters = new ArrayList<>();
+        Deque<String> listOwners = new ArrayDeque<>();
+        String lastClosedOwner = "";
+        String previousWord = "";
+        char previousSymbol = 0;
+
+        int i = 0;
+        while (i < length) {
+            char c = statement.charAt(i);
+            int next;
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(statement.charAt(i))) {
+                    i++;
+                }
+                text.append(' ');
+                continue;
+            } else if ((c == '-' && i + 1 < length && statement.charAt(i + 1) == '-') || (c == '#' && mysql)) {
+                next = i;
+                while (next < length && statement.charAt(next) != '\n') {
+                    next++;
+                }
+                text.append(statement, i, next).append('\n');
+                i = next;
+                continue;
+            } else if (c == '/' && i + 1 < length && statement.charAt(i + 1) == '*') {
+                next = statement.indexOf("*/", i + 2);
+                next = next < 0 ? length : next + 2;
+                text.append(statement, i, next);
+                i = next;
+                continue;
+            } else if (c == '?') {
+                return null;
+            } else if (c == '\'') {
+                next = findQuoteEnd(statement, i, '\'', mysql);
+                boolean prefixed = i > 0 && isWordCharacter(statement.charAt(i - 1));
+                if (!prefixed && isValuePosition(previousWord, previousSymbol, listOwners)) {
+                    parameters.add(unescape(statement.substring(i + 1, Math.max(i + 1, next - 1)), mysql));
+                    text.append('?');
+                } else {
+                    text.append(statement, i, next);
+                }
+                previousWord = "";
+                previousSymbol = 0;
+            } else if (c == '"' || (c == '`' && mysql) || (c == '[' && sqlServer)) {
+                next = findQuoteEnd(statement, i, c == '[' ? ']' : c, false);
+                text.append(statement, i, next);
+                previousWord = "";
+                previousSymbol = 0;
+            } else if (isNumberStart(statement, i)) {
+                next = i;
+                while (next < length && (Character.isDigit(statement.charAt(next)) || statement.charAt(next) == '.')) {
+                    next++;
+                }
+                if (next < length && (statement.charAt(next) == 'e' || statement.charAt(next) == 'E')) {
+                    int exponent = next + 1;
+                    if (exponent < length && (statement.charAt(exponent) == '+' || statement.charAt(exponent) == '-')) {
+                        exponent++;
+                    }
+                    if (exponent < length && Character.isDigit(statement.charAt(exponent))) {
+                        next = exponent;
+                        while (next < length && Character.isDigit(statement.charAt(next))) {
+                            next++;
+                        }
+                    }
+                }
+                Object value = next < length && isWordCharacter(statement.charAt(next))
+                        ? null : parseNumber(statement.substring(i, next));
+                if (value == null) {
+                    while (next < length && isWordCharacter(statement.charAt(next))) {
+                        next++;
+                    }
+                    text.append(statement, i, next);
+                } else if (isValuePosition(previousWord, previousSymbol, listOwners)) {
+                    parameters.add(value);
+                    text.append('?');
+                } else {
+                    text.append(statement, i, next);
+                }
+                previousWord = "";
+                previousSymbol = 0;
+            } else if (isWordCharacter(c)) {
+                next = i;
+                while (next < length && isWordCharacter(statement.charAt(next))) {
+                    next++;
+                }
+                text.append(statement, i, next);
+                previousWord = statement.substring(i, next).toUpperCase();
+                previousSymbol = 0;
+                if (!listOwners.isEmpty() && NORMALIZED_STATEMENTS.contains(previousWord)) {
+                    // a subquery inside a value list has its own structure
+                    listOwners.pop();
+                    listOwners.push(previousWord);
+                }
+            } else {
+                next = i + 1;
+                if (c == '(') {
+                    listOwners.push(previousSymbol == ',' ? lastClosedOwner : previousWord);
+                } else if (c == ')') {
+                    lastClosedOwner = listOwners.isEmpty() ? "" : listOwners.pop();
+                }
+                text.append(c);
+                previousWord = "";
+                previousSymbol = c;
+            }
+            if (parameters.size() > MAX_PARAMETERS) {
+                return null;
+            }
+            i = next;
+        }
+        return new StatementFingerprint(text.toString().trim(), parameters);
+    }
+
+    /**
+     * This method determines whether a literal following the given word or
+     * symbol is a value that may be replaced by a bind parameter.
+     *
+     * @param previousWord the preceding keyword in upper case, or empty
+     * @param previousSymbol the preceding symbol, or zero
+     * @param listOwners the keywords owning the open parentheses
+     * @return true if the literal is a value, false otherwise
+     */
+    private static boolean isValuePosition(String previousWord, char previousSymbol, Deque<String> listOwners) {
+        if (!previousWord.isEmpty()) {
+            return VALUE_KEYWORDS.contains(previousWord);
+        }
+        if (previousSymbol == '(' || previousSymbol == ',') {
+            return !listOwners.isEmpty() && VALUE_LISTS.contains(listOwners.peek());
+        }
+        return previousSymbol != 0 && VALUE_OPERATORS.indexOf(previousSymbol) >= 0;
+    }
+
+    /**
+     * This method returns the offset following the quoted text beginning at
+     * the given offset.
+     *
+     * @param statement the statement
+     * @param i the offset of the opening quote
+     * @param closingQuote the closing quote character
+     * @param backslashEscapes true if a backslash escapes the next character
+     * @return the offset following the closing quote
+     */
+    private static int findQuoteEnd(String statement, int i, char closingQuote, boolean backslashEscapes) {
+        int j = i + 1;
+        while (j < statement.length()) {
+            char c = statement.charAt(j);
+            if (backslashEscapes && c == '\\') {
+                j += 2;
+            } else if (c == closingQuote) {
+                if (j + 1 < statement.length() && statement.charAt(j + 1) == closingQuote) {
+                    j += 2;
+                } else {
+                    return j + 1;
+                }
+            } else {
+                j++;
+            }
+        }
+        return statement.length();
+    }
+
+    /**
+     * This method returns the value of a string literal without its escapes.
+     *
+     * @param literal the literal text between the quotes
+     * @param backslashEscapes true if a backslash escapes the next character
+     * @return the string value
+     */
+    private static String unescape(String literal, boolean backslashEscapes) {
+        StringBuilder value = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '\'' && i + 1 < literal.length() && literal.charAt(i + 1) == '\'') {
+                i++;
+            } else if (backslashEscapes && c == '\\' && i + 1 < literal.length()) {
+                char escaped = literal.charAt(++i);
+                switch (escaped) {
+                    case '0':
+                        c = '\0';
+                        break;
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'Z':
+                        c = '\032';
+                        break;
+                    case '%':
+                    case '_':
+                        value.append('\\');
+                        c = escaped;
+                        break;
+                    default:
+                        c = escaped;
+                        break;
+                }
+            }
+            value.append(c);
+        }
+        return value.toString();
+    }
+
+    /**
+     * This method determines whether a numeric literal begins at the given
+     * offset, rather than a digit inside a word.
+     *
+     * @param statement the statement
+     * @param i the offset
+     * @return true if a number begins, false otherwise
+     */
+    private static boolean isNumberStart(String statement, int i) {
+        char c = statement.charAt(i);
+        boolean digit = Character.isDigit(c)
+                || (c == '.' && i + 1 < statement.length() && Character.isDigit(statement.charAt(i + 1)));
+        return digit && (i == 0 || !isWordCharacter(statement.charAt(i - 1)));
+    }
+
+    /**
+     * This method returns the value of a numeric literal, as a Long when it is
+     * a whole number that fits and as a BigDecimal otherwise.
+     *
+     * @param literal the literal text
+     * @return the value, or null if the text is not a number
+     */
+    private static Object parseNumber(String literal) {
+        try {
+            if (literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0
+                    && literal.length() < 19) {
+                return Long.valueOf(literal);
+            }
+            return new BigDecimal(literal);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * This method determines whether the given character may be part of an
+     * unquoted word.
+     *
+     * @param c the character
+     * @return true if the character is a word character, false otherwise
+     */
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '@' || c == '#';
+    }
+}
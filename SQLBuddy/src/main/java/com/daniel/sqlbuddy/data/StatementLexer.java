@@ -0,0 +1,625 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+
+/**
+ * This class finds the boundaries of the statements in SQL text in a single
+ * pass. Quoted strings, quoted identifiers, and comments are recognized so
+ * that delimiters inside them do not end a statement. The rules for the
+ * database type are applied, including the MySQL DELIMITER command, the SQL
+ * Server GO batch separator, and the Oracle slash terminator for PL/SQL
+ * blocks.
+ *
+ * Statements are reported as offsets into the text, excluding the leading and
+ * trailing whitespace and comments and the delimiter. When the lexer is told
+ * more text may follow, a statement reaching the end of the text is not
+ * reported, so the text can be consumed in chunks.
+ *
+ * @author Bryan Daniel
+ */
+public class StatementLexer {
+
+    /**
+     * The default statement delimiter
+     */
+    public static final String DEFAULT_DELIMITER = ";";
+
+    /**
+     * The indication that more text is needed to continue scanning
+     */
+    private static final int INCOMPLETE = -1;
+
+    /**
+     * The indication that a line is not a standalone command line
+     */
+    private static final int NOT_STANDALONE = -2;
+
+    /**
+     * The text to scan
+     */
+    private final CharSequence text;
+
+    /**
+     * The length of the text
+     */
+    private final int length;
+
+    /**
+     * Indicates no text follows the text being scanned
+     */
+    private final boolean endOfInput;
+
+    /**
+     * Indicates the MySQL rules apply
+     */
+    private final boolean mysql;
+
+    /**
+     * Indicates the SQL Server rules apply
+     */
+    private final boolean sqlServer;
+
+    /**
+     * Indicates the Oracle rules apply
+     */
+    private final boolean oracle;
+
+    /**
+     * The current statement delimiter
+     */
+    private String delimiter;
+
+    /**
+     * The offset where scanning continues
+     */
+    private int position;
+
+    /**
+     * The offset of the start of the current statement
+     */
+    private int start;
+
+    /**
+     * The offset of the end of the current statement
+     */
+    private int end;
+
+    /**
+     * This constructor sets the text to scan in full and the database type
+     * whose rules apply.
+     *
+     * @param text the SQL text
+     * @param databaseType the database type
+     */
+    public StatementLexer(CharSequence text, String databaseType) {
+        this(text, databaseType, true);
+    }
+
+    /**
+     * This constructor sets the text to scan, the database type whose rules
+     * apply, and whether more text may follow.
+     *
+     * @param text the SQL text
+     * @param databaseType the database type
+     * @param endOfInput true if no text follows, false otherwise
+     */
+    public StatementLexer(CharSequence text, String databaseType, boolean endOfInput) {
+        this.text = text;
+        this.length = text.length();
+        this.endOfInput = endOfInput;
+        mysql = ConnectionProperties.MYSQL.equals(databaseType);
+        sqlServer = ConnectionProperties.MS_SQL.equals(databaseType);
+        oracle = ConnectionProperties.ORACLE_THIN.equals(databaseType)
+                || ConnectionProperties.ORACLE_OCI.equals(databaseType);
+        delimiter = DEFAULT_DELIMITER;
+    }
+
+    /**
+     * This method advances to the next statement in the text. Empty
+     * statements are skipped.
+     *
+     * @return true if a statement was found, false if the text is exhausted or
+     * the rest of the text is an incomplete statement
+     */
+    public boolean next() {
+
+        while (true) {
+            int tokenStart = skipWhitespaceAndComments(position);
+            if (tokenStart == INCOMPLETE) {
+                return false;
+            }
+            if (tokenStart == length) {
+                position = length;
+                return false;
+            }
+            int commandEnd = findClientCommandEnd(tokenStart);
+            if (commandEnd == INCOMPLETE) {
+                return false;
+            }
+            if (commandEnd != NOT_STANDALONE) {
+                position = commandEnd;
+                continue;
+            }
+            if (!scanStatement(tokenStart)) {
+                return false;
+            }
+            if (end > start) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get the offset of the start of the current statement
+     *
+     * @return the start offset
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the offset of the end of the current statement
+     *
+     * @return the end offset, exclusive
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the offset where scanning continues. All text before this offset
+     * has been consumed.
+     *
+     * @return the scan position
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * This method returns the text of the current statement.
+     *
+     * @return the statement
+     */
+    public String getStatement() {
+        return text.subSequence(start, end).toString();
+    }
+
+    /**
+     * Get the value of delimiter
+     *
+     * @return the value of delimiter
+     */
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Set the value of delimiter. This carries a delimiter changed by a MySQL
+     * DELIMITER command over to the lexer for the next chunk of text.
+     *
+     * @param delimiter new value of delimiter
+     */
+    public void setDelimiter(String delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * This method scans the statement beginning at the given offset.
+     *
+     * @param tokenStart the offset of the first token of the statement
+     * @return true if a statement was found, false if more text is needed
+     */
+    private boolean scanStatement(int tokenStart) {
+
+        boolean plsqlBlock = oracle && startsPlsqlBlock(tokenStart);
+        int lastTokenEnd = tokenStart;
+        int i = tokenStart;
+        while (i < length) {
+            char c = text.charAt(i);
+            int next;
+            if (c == '\n' && (sqlServer || oracle)) {
+                int commandEnd = findSeparatorLineEnd(i + 1);
+                if (commandEnd == INCOMPLETE) {
+                    return false;
+                }
+                if (commandEnd != NOT_STANDALONE) {
+                    return report(tokenStart, lastTokenEnd, commandEnd);
+                }
+                i++;
+                continue;
+            }
+            if (c == '\'' || c == '"' || (c == '`' && mysql)) {
+                next = skipQuoted(i, c, mysql && c != '`');
+            } else if (c == '[' && sqlServer) {
+                next = skipQuoted(i, ']', false);
+            } else if (isLineCommentStart(i)) {
+                i = skipLineComment(i);
+                continue;
+            } else if (isBlockCommentStart(i)) {
+                next = skipBlockComment(i);
+                if (next != INCOMPLETE && !isExecutableComment(i)) {
+                    i = next;
+                    continue;
+                }
+            } else if (!plsqlBlock && text.charAt(i) == delimiter.charAt(0) && matches(i, delimiter)) {
+                return report(tokenStart, lastTokenEnd, i + delimiter.length());
+            } else if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else {
+                next = i + 1;
+            }
+            if (next == INCOMPLETE) {
+                return false;
+            }
+            lastTokenEnd = next;
+            i = next;
+        }
+        if (!endOfInput) {
+            return false;
+        }
+        return report(tokenStart, lastTokenEnd, length);
+    }
+
+    /**
+     * This method records the boundaries of a statement found by the scan.
+     *
+     * @param statementStart the start offset
+     * @param statementEnd the end offset
+     * @param nextPosition the offset where scanning continues
+     * @return true
+     */
+    private boolean report(int statementStart, int statementEnd, int nextPosition) {
+        start = statementStart;
+        end = statementEnd;
+        position = nextPosition;
+        return true;
+    }
+
+    /**
+     * This method skips the whitespace and comments beginning at the given
+     * offset.
+     *
+     * @param i the offset
+     * @return the offset of the next token, the length of the text if none
+     * remains, or INCOMPLETE if more text is needed
+     */
+    private int skipWhitespaceAndComments(int i) {
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (isLineCommentStart(i)) {
+                i = skipLineComment(i);
+            } else if (isBlockCommentStart(i) && !isExecutableComment(i)) {
+                i = skipBlockComment(i);
+                if (i == INCOMPLETE) {
+                    return INCOMPLETE;
+                }
+            } else {
+                return i;
+            }
+        }
+        return endOfInput ? length : INCOMPLETE;
+    }
+
+    /**
+     * This method recognizes the client commands that may appear where a
+     * statement would begin. These are the MySQL DELIMITER command, the SQL
+     * Server GO batch separator, and the Oracle slash terminator.
+     *
+     * @param i the offset of the first token
+     * @return the offset following the command, NOT_STANDALONE if there is no
+     * command, or INCOMPLETE if more text is needed
+     */
+    private int findClientCommandEnd(int i) {
+
+        if (mysql && matchesWord(i, "DELIMITER")) {
+            int lineEnd = indexOfLineEnd(i);
+            if (lineEnd == length && !endOfInput) {
+                return INCOMPLETE;
+            }
+            int valueStart = i + "DELIMITER".length();
+            while (valueStart < lineEnd && Character.isWhitespace(text.charAt(valueStart))) {
+                valueStart++;
+            }
+            int valueEnd = valueStart;
+            while (valueEnd < lineEnd && !Character.isWhitespace(text.charAt(valueEnd))) {
+                valueEnd++;
+            }
+            if (valueEnd > valueStart) {
+                delimiter = text.subSequence(valueStart, valueEnd).toString();
+            }
+            return lineEnd;
+        }
+        if (sqlServer || oracle) {
+            int lineStart = i;
+            while (lineStart > 0 && text.charAt(lineStart - 1) != '\n'
+                    && Character.isWhitespace(text.charAt(lineStart - 1))) {
+                lineStart--;
+            }
+            if (lineStart == 0 || text.charAt(lineStart - 1) == '\n') {
+                return findSeparatorLineEnd(lineStart);
+            }
+        }
+        return NOT_STANDALONE;
+    }
+
+    /**
+     * This method determines whether the line beginning at the given offset
+     * holds only a batch separator, which is GO for SQL Server and a slash for
+     * Oracle.
+     *
+     * @param lineStart the offset of the start of the line
+     * @return the offset following the line, NOT_STANDALONE if the line is not
+     * a separator, or INCOMPLETE if more text is needed
+     */
+    private int findSeparatorLineEnd(int lineStart) {
+
+        int i = lineStart;
+        while (i < length && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        int separatorEnd;
+        if (sqlServer && matchesWord(i, "GO")) {
+            separatorEnd = i + 2;
+        } else if (oracle && i < length && text.charAt(i) == '/') {
+            separatorEnd = i + 1;
+        } else {
+            if (i + 2 > length && !endOfInput) {
+                return INCOMPLETE;
+            }
+            return NOT_STANDALONE;
+        }
+        while (separatorEnd < length && text.charAt(separatorEnd) != '\n') {
+            if (!Character.isWhitespace(text.charAt(separatorEnd))) {
+                return NOT_STANDALONE;
+            }
+            separatorEnd++;
+        }
+        if (separatorEnd == length) {
+            return endOfInput ? length : INCOMPLETE;
+        }
+        return separatorEnd + 1;
+    }
+
+    /**
+     * This method determines whether the statement beginning at the given
+     * offset is an Oracle PL/SQL block, which may only be ended by the slash
+     * terminator.
+     *
+     * @param i the offset of the first token
+     * @return true if the statement is a PL/SQL block, false otherwise
+     */
+    private boolean startsPlsqlBlock(int i) {
+
+        if (matchesWord(i, "BEGIN") || matchesWord(i, "DECLARE")) {
+            return true;
+        }
+        if (!matchesWord(i, "CREATE")) {
+            return false;
+        }
+        i = skipWord(i);
+        while (true) {
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (matchesWord(i, "OR") || matchesWord(i, "REPLACE") || matchesWord(i, "EDITIONABLE")
+                    || matchesWord(i, "NONEDITIONABLE")) {
+                i = skipWord(i);
+                continue;
+            }
+            return matchesWord(i, "FUNCTION") || matchesWord(i, "PROCEDURE") || matchesWord(i, "PACKAGE")
+                    || matchesWord(i, "TRIGGER") || matchesWord(i, "TYPE") || matchesWord(i, "LIBRARY");
+        }
+    }
+
+    /**
+     * This method skips a quoted string or identifier beginning at the given
+     * offset. A doubled closing quote is treated as part of the value.
+     *
+     * @param i the offset of the opening quote
+     * @param closingQuote the closing quote character
+     * @param backslashEscapes true if a backslash escapes the next character
+     * @return the offset following the closing quote, or INCOMPLETE if more
+     * text is needed
+     */
+    private int skipQuoted(int i, char closingQuote, boolean backslashEscapes) {
+        int j = i + 1;
+        while (j < length) {
+            char c = text.charAt(j);
+            if (backslashEscapes && c == '\\') {
+                j += 2;
+            } else if (c == closingQuote) {
+                if (j + 1 < length) {
+                    if (text.charAt(j + 1) != closingQuote) {
+                        return j + 1;
+                    }
+                    j += 2;
+                } else {
+                    return endOfInput ? j + 1 : INCOMPLETE;
+                }
+            } else {
+                j++;
+            }
+        }
+        return endOfInput ? length : INCOMPLETE;
+    }
+
+    /**
+     * This method determines whether a line comment begins at the given
+     * offset. MySQL requires whitespace after the double dash and also
+     * accepts the hash character.
+     *
+     * @param i the offset
+     * @return true if a line comment begins, false otherwise
+     */
+    private boolean isLineCommentStart(int i) {
+        char c = text.charAt(i);
+        if (c == '#') {
+            return mysql;
+        }
+        if (c != '-' || i + 1 >= length || text.charAt(i + 1) != '-') {
+            return false;
+        }
+        return !mysql || i + 2 >= length || Character.isWhitespace(text.charAt(i + 2));
+    }
+
+    /**
+     * This method skips a line comment beginning at the given offset.
+     *
+     * @param i the offset of the comment
+     * @return the offset of the line end
+     */
+    private int skipLineComment(int i) {
+        return indexOfLineEnd(i);
+    }
+
+    /**
+     * This method determines whether a block comment begins at the given
+     * offset.
+     *
+     * @param i the offset
+     * @return true if a block comment begins, false otherwise
+     */
+    private boolean isBlockCommentStart(int i) {
+        return text.charAt(i) == '/' && i + 1 < length && text.charAt(i + 1) == '*';
+    }
+
+    /**
+     * This method determines whether the block comment at the given offset is
+     * a MySQL executable comment or optimizer hint, which is part of the
+     * statement.
+     *
+     * @param i the offset of the comment
+     * @return true if the comment must be kept, false otherwise
+     */
+    private boolean isExecutableComment(int i) {
+        return mysql && i + 2 < length && (text.charAt(i + 2) == '!' || text.charAt(i + 2) == '+');
+    }
+
+    /**
+     * This method skips a block comment beginning at the given offset. SQL
+     * Server comments may be nested.
+     *
+     * @param i the offset of the comment
+     * @return the offset following the comment, or INCOMPLETE if more text is
+     * needed
+     */
+    private int skipBlockComment(int i) {
+        int depth = 1;
+        int j = i + 2;
+        while (j + 1 < length) {
+            char c = text.charAt(j);
+            if (c == '*' && text.charAt(j + 1) == '/') {
+                depth--;
+                j += 2;
+                if (depth == 0) {
+                    return j;
+                }
+            } else if (sqlServer && c == '/' && text.charAt(j + 1) == '*') {
+                depth++;
+                j += 2;
+            } else {
+                j++;
+            }
+        }
+        return endOfInput ? length : INCOMPLETE;
+    }
+
+    /**
+     * This method returns the offset of the newline ending the line that
+     * contains the given offset, or the length of the text.
+     *
+     * @param i the offset
+     * @return the offset of the line end
+     */
+    private int indexOfLineEnd(int i) {
+        while (i < length && text.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * This method determines whether the text at the given offset matches the
+     * given value exactly.
+     *
+     * @param i the offset
+     * @param value the value
+     * @return true if the text matches, false otherwise
+     */
+    private boolean matches(int i, String value) {
+        if (i + value.length() > length) {
+            return false;
+        }
+        for (int k = 0; k < value.length(); k++) {
+            if (text.charAt(i + k) != value.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method determines whether the given keyword, ignoring case, is the
+     * whole word at the given offset.
+     *
+     * @param i the offset
+     * @param word the upper-case keyword
+     * @return true if the word matches, false otherwise
+     */
+    private boolean matchesWord(int i, String word) {
+        if (i + word.length() > length) {
+            return false;
+        }
+        for (int k = 0; k < word.length(); k++) {
+            if (Character.toUpperCase(text.charAt(i + k)) != word.charAt(k)) {
+                return false;
+            }
+        }
+        int after = i + word.length();
+        return after == length || !isWordCharacter(text.charAt(after));
+    }
+
+    /**
+     * This method returns the offset following the word at the given offset.
+     *
+     * @param i the offset
+     * @return the offset following the word
+     */
+    private int skipWord(int i) {
+        while (i < length && isWordCharacter(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * This method determines whether the given character may be part of an
+     * unquoted word.
+     *
+     * @param c the character
+     * @return true if the character is a word character, false otherwise
+     */
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+}
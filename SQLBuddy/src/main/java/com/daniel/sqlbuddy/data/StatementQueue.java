@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class passes statements from the thread finding them to the thread
+ * executing them. The queue is bounded, so a producer reading a large script
+ * stays only a few statements ahead of the database.
+ *
+ * @author Bryan Daniel
+ */
+public class StatementQueue {
+
+    /**
+     * The default number of statements the queue holds
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The number of milliseconds a blocked producer waits before checking for
+     * cancellation, and a waiting consumer before checking for the end of the
+     * statements
+     */
+    private static final long OFFER_TIMEOUT_MILLISECONDS = 100L;
+
+    /**
+     * The marker placed in the queue after the last statement
+     */
+    private static final String END_OF_STATEMENTS = new String();
+
+    /**
+     * The queued statements
+     */
+    private final BlockingQueue<String> queue;
+
+    /**
+     * Indicates the consumer has stopped taking statements
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Indicates the producer has finished
+     */
+    private volatile boolean closed;
+
+    /**
+     * The exception or error that stopped the producer
+     */
+    private volatile Throwable failure;
+
+    /**
+     * This constructor creates a queue holding the default number of
+     * statements.
+     */
+    public StatementQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * This constructor creates a queue holding the given number of statements.
+     *
+     * @param capacity the queue capacity
+     */
+    public StatementQueue(int capacity) {
+        queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * This method adds a statement to the queue, waiting while the queue is
+     * full.
+     *
+     * @param statement the statement
+     * @return true if the statement was queued, false if the consumer has
+     * stopped and the producer should stop as well
+     * @throws InterruptedException if the producer is interrupted
+     */
+    public boolean put(String statement) throws InterruptedException {
+        while (!cancelled) {
+            if (queue.offer(statement, OFFER_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method marks the end of the statements. It is called by the
+     * producer when it finishes, whether or not it succeeded. It never blocks
+     * or fails, so the consumer is not left waiting even when the producer is
+     * interrupted or out of memory. The end marker only wakes a waiting
+     * consumer early; when the queue is full, the consumer finds the end once
+     * it has taken the queued statements.
+     */
+    public void close() {
+        closed = true;
+        queue.offer(END_OF_STATEMENTS);
+    }
+
+    /**
+     * This method records the exception or error that stopped the producer.
+     * The consumer reports it after taking the statements queued before it.
+     *
+     * @param failure the exception or error
+     */
+    public void fail(Throwable failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * This method takes the next statement from the queue, waiting while the
+     * queue is empty and the producer has not finished.
+     *
+     * @return the statement, or null if no statements remain
+     * @throws InterruptedException if the consumer is interrupted
+     */
+    public String take() throws InterruptedException {
+        while (true) {
+            String statement = queue.poll(OFFER_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+            if (statement == END_OF_STATEMENTS) {
+                queue.offer(END_OF_STATEMENTS);
+                return null;
+            }
+            if (statement != null) {
+                return statement;
+            }
+            if (closed && queue.isEmpty()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * This method stops the producer. It is called by the consumer when it
+     * stops taking statements.
+     */
+    public void cancel() {
+        cancelled = true;
+        queue.clear();
+    }
+
+    /**
+     * Get the value of failure
+     *
+     * @return the value of failure
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
@@ -16,19 +16,13 @@
 package com.daniel.sqlbuddy.data;
 
 import com.daniel.sqlbuddy.model.ConnectionProperties;
-import com.daniel.sqlbuddy.model.DriverDelegate;
 import com.daniel.sqlbuddy.util.DatabaseUtil;
 import com.daniel.sqlbuddy.util.QueryUtil;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.text.MessageFormat;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 
 /**
@@ -39,6 +33,21 @@ import org.apache.logging.log4j.LogManager;
  */
 public class TestQueryDataAccess {
 
+    /**
+     * The message for the driver loading phase
+     */
+    public static final String DRIVER_PHASE = "Loading driver...";
+
+    /**
+     * The message for the connection and authentication phase
+     */
+    public static final String CONNECT_PHASE = "Connecting and authenticating...";
+
+    /**
+     * The message for the validation query phase
+     */
+    public static final String VALIDATION_PHASE = "Running validation query...";
+
     /**
      * The database connection properties
      */
@@ -49,6 +58,12 @@ public class TestQueryDataAccess {
      */
     protected org.apache.logging.log4j.Logger logger;
 
+    /**
+     * The pool created for the pooled connection test, or null before the
+     * test starts
+     */
+    private volatile ConnectionPool pool;
+
     /**
      * This constructor sets the connection properties for the test query.
      *
@@ -68,40 +83,103 @@ public class TestQueryDataAccess {
     public Boolean connectionSuccessful() {
 
         Connection connection = null;
+        Boolean testPasses = false;
+
+        StringBuilder connectionString = DatabaseUtil.createDatabaseUrl(properties);
+        try {
+            connection = DriverRegistry.getInstance().connect(properties, connectionString.toString());
+            testPasses = runTestQuery(connection);
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred during TestQueryDataAccess.connectionSuccessful.", ex);
+        } finally {
+            DatabaseUtil.closeConnection(connection);
+        }
+        return testPasses;
+    }
+
+    /**
+     * This method executes the test query on a connection borrowed from a new
+     * pool for the query window and returns a boolean value indicating a pass
+     * or fail result. The pool is not managed, so no other window uses it. A
+     * connection passing the test is returned to the pool, which the caller
+     * adds to the connection pool manager so the first query of the window
+     * starts with a live session. The pool is shut down if the test fails.
+     *
+     * @return the indication of a passing or failing test
+     */
+    public Boolean pooledConnectionSuccessful() {
+        return pooledConnectionSuccessful((String phase) -> {
+        });
+    }
+
+    /**
+     * This method executes the test query on a connection borrowed from a new
+     * pool for the query window, reporting each phase of the test to the given
+     * progress consumer.
+     *
+     * @param progress the consumer of phase messages
+     * @return the indication of a passing or failing test
+     */
+    public Boolean pooledConnectionSuccessful(Consumer<String> progress) {
+
+        Connection connection = null;
+        Boolean testPasses = false;
+        ConnectionPool pool = ConnectionPoolManager.getInstance().createPool(properties);
+        this.pool = pool;
+
+        try {
+            progress.accept(DRIVER_PHASE);
+            try {
+                DriverRegistry.getInstance().getDriver(properties);
+            } catch (SQLException ex) {
+                logger.error("SQLException occurred loading the driver in TestQueryDataAccess.", ex);
+            }
+            progress.accept(CONNECT_PHASE);
+            connection = pool.borrowConnection();
+            progress.accept(VALIDATION_PHASE);
+            testPasses = runTestQuery(connection);
+        } catch (SQLException ex) {
+            logger.error("SQLException occurred during TestQueryDataAccess.pooledConnectionSuccessful.", ex);
+        } finally {
+            pool.releaseConnection(connection);
+        }
+        if (!testPasses) {
+            pool.shutdown();
+        }
+        return testPasses;
+    }
+
+    /**
+     * Get the value of pool
+     *
+     * @return the pool created for the pooled connection test, or null if the
+     * test has not started
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * This method executes the test query on the given connection.
+     *
+     * @param connection the database connection
+     * @return true if the test query returns the number one, false otherwise
+     * @throws SQLException if the test query fails
+     */
+    private boolean runTestQuery(Connection connection) throws SQLException {
+
         Statement query = null;
         ResultSet resultSet = null;
-        Boolean testPasses = false;
         String testQuery = QueryUtil.getConnectionTestQuery(properties);
 
-        StringBuilder connectionString = DatabaseUtil.createDatabaseUrl(properties);
         try {
-            String urlString = MessageFormat.format("jar:file:{0}!/",
-                    properties.getProperty(ConnectionProperties.DRIVER_PATH));
-            URL url = new URL(urlString);
-            //String classname = "org.postgresql.Driver";
-            String classname = properties.getProperty(ConnectionProperties.CLASS_NAME);
-            URLClassLoader urlClassLoader = new URLClassLoader(new URL[]{url});
-            Driver d = (Driver) Class.forName(classname, true, urlClassLoader).newInstance();
-            DriverManager.registerDriver(new DriverDelegate(d));
-            connection = DriverManager.getConnection(connectionString.toString(),
-                    properties.getProperty(ConnectionProperties.USERNAME),
-                    properties.getProperty(ConnectionProperties.PASSWORD));
             query = connection.createStatement();
             resultSet = query.executeQuery(testQuery);
             resultSet.next();
-            int result = resultSet.getInt(1);
-            if (result == 1) {
-                testPasses = true;
-            }
-        } catch (SQLException ex) {
-            logger.error("SQLException occurred during TestQueryDataAccess.connectionSuccessful.", ex);
-        } catch (MalformedURLException | ClassNotFoundException | InstantiationException | IllegalAccessException ex) {
-            logger.error("Exception occurred during TestQueryDataAccess.connectionSuccessful.", ex);
+            return resultSet.getInt(1) == 1;
         } finally {
             DatabaseUtil.closeResultSet(resultSet);
             DatabaseUtil.closeStatement(query);
-            DatabaseUtil.closeConnection(connection);
         }
-        return testPasses;
     }
 }
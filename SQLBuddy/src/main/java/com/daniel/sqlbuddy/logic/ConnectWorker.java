@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.logic;
+
+import com.daniel.sqlbuddy.data.ConnectionPoolManager;
+import com.daniel.sqlbuddy.data.TestQueryDataAccess;
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import com.daniel.sqlbuddy.ui.QueryWindow;
+import com.daniel.sqlbuddy.ui.WindowAssembler;
+import com.daniel.sqlbuddy.ui.WindowAssemblyManufacturer;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This SwingWorker validates the connection properties in a background thread
+ * and opens the query window when the connection is good. The phases of the
+ * validation are shown on the result label as they are reached.
+ *
+ * @author Bryan Daniel
+ */
+public class ConnectWorker extends SwingWorker<Boolean, String> {
+
+    /**
+     * The object holding connection properties
+     */
+    private final ConnectionProperties properties;
+
+    /**
+     * The label to update with a message
+     */
+    private final JLabel resultLabel;
+
+    /**
+     * The logger for this class
+     */
+    protected Logger logger;
+
+    /**
+     * The data access running the connection test, or null before it starts
+     */
+    private volatile TestQueryDataAccess testQuery;
+
+    /**
+     * This constructor sets all the values of the instance variables.
+     *
+     * @param properties the connection properties
+     * @param resultLabel the result label
+     */
+    public ConnectWorker(ConnectionProperties properties, JLabel resultLabel) {
+        this.properties = properties;
+        this.resultLabel = resultLabel;
+        logger = LogManager.getLogger(ConnectWorker.class);
+    }
+
+    /**
+     * This method displays the latest validation phase on the result label.
+     * This is executed on the event dispatch thread.
+     *
+     * @param phases the phases reached since the last update
+     */
+    @Override
+    protected void process(List<String> phases) {
+        if (!isDone()) {
+            resultLabel.setText(phases.get(phases.size() - 1));
+            resultLabel.repaint();
+        }
+    }
+
+    /**
+     * This method opens the query window if the connection is good or displays
+     * the failure or cancellation on the result label. The pool of a good
+     * connection is added to the connection pool manager for the window, and
+     * the pool of a cancelled attempt is shut down. This is executed on the
+     * event dispatch thread.
+     */
+    @Override
+    protected void done() {
+
+        if (isCancelled()) {
+            shutdownPool();
+            resultLabel.setText("Connection cancelled.");
+            resultLabel.repaint();
+            return;
+        }
+        try {
+            if (get()) {
+                ConnectionPoolManager.getInstance().addPool(testQuery.getPool());
+                resultLabel.setText("Connection good.");
+                resultLabel.repaint();
+                WindowAssemblyManufacturer factory = WindowAssemblyManufacturer.getInstance();
+                WindowAssembler assembler = factory.employWindowAssemblerForQueries(properties);
+                QueryWindow queryWindow = (QueryWindow) assembler.assembleWindow();
+                queryWindow.setLocationRelativeTo(null);
+                queryWindow.setAlwaysOnTop(true);
+                queryWindow.setVisible(true);
+                SwingUtilities.windowForComponent(resultLabel).dispose();
+            } else {
+                resultLabel.setText("Connection failed!");
+                resultLabel.repaint();
+            }
+        } catch (InterruptedException | ExecutionException ex) {
+            logger.error("Exception occurred in done method.", ex);
+            resultLabel.setText("Connection failed!");
+            resultLabel.repaint();
+        }
+    }
+
+    /**
+     * This method uses the data access class for executing a test query on the
+     * pooled connection to be used by the query window. This is not executed
+     * on the event dispatch thread.
+     *
+     * @return true if the connection is good, false otherwise
+     * @throws Exception if an exception occurs
+     */
+    @Override
+    protected Boolean doInBackground() throws Exception {
+
+        testQuery = new TestQueryDataAccess(properties);
+        boolean connectionGood = testQuery.pooledConnectionSuccessful((String phase) -> {
+            publish(phase);
+        });
+
+        // a connection completed after cancellation is not kept
+        if (isCancelled()) {
+            shutdownPool();
+        }
+        return connectionGood;
+    }
+
+    /**
+     * This method shuts down the pool created by this connection attempt. The
+     * pool is never added to the connection pool manager once the attempt is
+     * cancelled, so no other window can be using it.
+     */
+    private void shutdownPool() {
+        TestQueryDataAccess test = testQuery;
+        if (test != null && test.getPool() != null) {
+            test.getPool().shutdown();
+        }
+    }
+}
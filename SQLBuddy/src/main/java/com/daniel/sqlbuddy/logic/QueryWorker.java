@@ -15,25 +15,42 @@
  */
 package com.daniel.sqlbuddy.logic;
 
+import com.daniel.sqlbuddy.data.CursorTableModel;
 import com.daniel.sqlbuddy.data.InputProcessor;
 import com.daniel.sqlbuddy.data.InputProcessorFactory;
+import com.daniel.sqlbuddy.data.ResultTableModel;
 import com.daniel.sqlbuddy.model.ConnectionProperties;
 import com.daniel.sqlbuddy.util.TableUtil;
+import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Dimension;
+import java.io.Closeable;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import javax.swing.JComponent;
 import javax.swing.JLabel;
+import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.SwingWorker;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * This SwingWorker takes statements from query window input and uses the data
- * access class to retrieve results.
+ * access class to retrieve results. Each result is published as soon as it is
+ * available, so its tab appears while the remaining statements are executed,
+ * and the first rows of a result table are shown in chunks as they are read.
  *
  * @author Bryan Daniel
  */
@@ -59,6 +76,27 @@ public class QueryWorker extends SwingWorker<List<Object>, Object> {
      */
     private Logger logger;
 
+    /**
+     * The input processor executing the statements, or null before it starts
+     */
+    private volatile InputProcessor processor;
+
+    /**
+     * True once cancellation has been requested
+     */
+    private volatile boolean cancelRequested;
+
+    /**
+     * The results that have tabs, used on the event dispatch thread
+     */
+    private final Set<Object> shownResults;
+
+    /**
+     * True once the tabs of earlier results have been removed, used on the
+     * event dispatch thread
+     */
+    private boolean cleared;
+
     /**
      * This constructor sets the values for the query string, the connection
      * properties, and the results panel.
@@ -73,44 +111,217 @@ public class QueryWorker extends SwingWorker<List<Object>, Object> {
         this.properties = properties;
         this.tabbedPane = tabbedPane;
         logger = LogManager.getLogger(QueryWorker.class);
+        shownResults = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * This method adds a tab for each newly published result and shows the
+     * rows read since the last chunk for results that already have tabs. The
+     * tabs of earlier results are removed when the first result arrives. This
+     * is executed on the event dispatch thread.
+     *
+     * @param chunks the published results
+     */
+    @Override
+    protected void process(List<Object> chunks) {
+
+        for (Object result : chunks) {
+            showResult(result);
+        }
+        ResultMemoryManager.getInstance().enforceBudget();
+        tabbedPane.repaint();
     }
 
     /**
      * This method gets the results produced by the doInBackground method and
-     * displays the results in the query window. This is executed on the event
-     * dispatch thread.
+     * adds tabs for any results that have not been shown yet. The results are
+     * then only held by their tabs, so the memory manager can unload them.
+     * This is executed on the event dispatch thread.
      */
     @Override
     protected void done() {
-        
-        tabbedPane.removeAll();
-        
+
         try {
             List<Object> results = get();
-            int i = 1;
-            for (Object object : results) {
-                if (object instanceof DefaultTableModel) {
-
-                    // wrap a scrollpane around the table
-                    JTable resultTable = new JTable((DefaultTableModel) object);
-                    TableUtil.adjustTableColumnWidths(resultTable);
-                    JScrollPane scrollPane = new JScrollPane(resultTable,
-                            JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
-                            JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
-                    scrollPane.setAutoscrolls(true);
-                    scrollPane.setPreferredSize(new Dimension(200, 200));
-                    tabbedPane.addTab("Result " + i++, scrollPane);
-                }
-                if (object instanceof String) {
-                    tabbedPane.addTab("Result " + i++, new JLabel((String) object));
-                }
+            for (Object result : results) {
+                showResult(result);
             }
+            results.clear();
         } catch (InterruptedException | ExecutionException ex) {
             logger.error("Execption occurred in QueryWorker.", ex);
-        }        
+        }
+        shownResults.clear();
+        if (!cleared) {
+            clearResults(tabbedPane);
+            cleared = true;
+        }
+        ResultMemoryManager.getInstance().enforceBudget();
+        tabbedPane.repaint();
+    }
+
+    /**
+     * This method adds a tab for the given result unless it already has one.
+     * A result table that already has a tab is told to show its new rows.
+     *
+     * @param result the result
+     */
+    private void showResult(Object result) {
+
+        if (shownResults.contains(result)) {
+            if (result instanceof CursorTableModel) {
+                ((CursorTableModel) result).showNewRows();
+            }
+            return;
+        }
+        if (!cleared) {
+            clearResults(tabbedPane);
+            cleared = true;
+        }
+        shownResults.add(result);
+        addResultTab(result, tabbedPane);
+    }
+
+    /**
+     * This method replaces the tabs of the given tabbed pane with a tab for
+     * each of the given results. Result sets are shown in tables and messages
+     * in labels. This must be executed on the event dispatch thread.
+     *
+     * @param results the results to display
+     * @param tabbedPane the tabbed pane
+     */
+    static void showResults(List<Object> results, JTabbedPane tabbedPane) {
+
+        clearResults(tabbedPane);
+        for (Object object : results) {
+            addResultTab(object, tabbedPane);
+        }
         tabbedPane.repaint();
     }
 
+    /**
+     * This method adds a tab for the given result after the existing tabs of
+     * the given tabbed pane. Result sets are shown in tables and messages in
+     * labels. The column widths of a table that has no rows yet are adjusted
+     * when its first rows arrive. A result taken from the result cache is
+     * marked in its title, with the time it was read in its tool tip. The
+     * rows of the table are accounted by the result memory manager. This must
+     * be executed on the event dispatch thread.
+     *
+     * @param object the result to display
+     * @param tabbedPane the tabbed pane
+     */
+    static void addResultTab(Object object, JTabbedPane tabbedPane) {
+
+        String title = "Result " + (tabbedPane.getTabCount() + 1);
+        if (object instanceof TableModel) {
+
+            // wrap a scrollpane around the table
+            TableModel model = (TableModel) object;
+            JTable resultTable = new JTable(model);
+            // only rows held in memory are sampled without loading more
+            boolean headOnly = !(model instanceof ResultTableModel);
+            TableUtil.adjustTableColumnWidths(resultTable, headOnly);
+            if (model.getRowCount() == 0) {
+                model.addTableModelListener(new TableModelListener() {
+                    @Override
+                    public void tableChanged(TableModelEvent event) {
+                        if (model.getRowCount() > 0) {
+                            model.removeTableModelListener(this);
+                            TableUtil.adjustTableColumnWidths(resultTable, headOnly);
+                        }
+                    }
+                });
+            }
+            JScrollPane scrollPane = new JScrollPane(resultTable,
+                    JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
+                    JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+            scrollPane.setAutoscrolls(true);
+            scrollPane.setPreferredSize(new Dimension(200, 200));
+            JComponent component = scrollPane;
+            if (object instanceof CursorTableModel) {
+                component = createCursorPanel((CursorTableModel) object, scrollPane);
+            }
+            component.putClientProperty(TableModel.class, model);
+            if (model instanceof ResultTableModel && ((ResultTableModel) model).isCached()) {
+                String time = new SimpleDateFormat("HH:mm:ss")
+                        .format(new Date(((ResultTableModel) model).getCachedTime()));
+                tabbedPane.addTab(title + " (cached)", null, component, "Cached result from " + time);
+            } else {
+                tabbedPane.addTab(title, component);
+            }
+            ResultMemoryManager.getInstance().addTab(tabbedPane, component, resultTable);
+        }
+        if (object instanceof String) {
+            tabbedPane.addTab(title, new JLabel((String) object));
+        }
+    }
+
+    /**
+     * This method removes every tab of the given tabbed pane, closing the
+     * results shown in them that hold cursors or temporary files. This must
+     * be executed on the event dispatch thread.
+     *
+     * @param tabbedPane the tabbed pane
+     */
+    public static void clearResults(JTabbedPane tabbedPane) {
+
+        for (int index = 0; index < tabbedPane.getTabCount(); index++) {
+            Component component = tabbedPane.getComponentAt(index);
+            if (component instanceof JComponent) {
+                Object model = ((JComponent) component).getClientProperty(TableModel.class);
+                if (model instanceof Closeable) {
+                    try {
+                        ((Closeable) model).close();
+                    } catch (IOException ex) {
+                        LogManager.getLogger(QueryWorker.class).error("IOException occurred while closing a result.", ex);
+                    }
+                }
+            }
+        }
+        ResultMemoryManager.getInstance().removeTabs(tabbedPane);
+        tabbedPane.removeAll();
+    }
+
+    /**
+     * This method places the given table scroll pane above a label showing
+     * how many rows of the given model have been fetched so far.
+     *
+     * @param model the table model
+     * @param scrollPane the scroll pane holding the table
+     * @return the panel for the result tab
+     */
+    private static JPanel createCursorPanel(CursorTableModel model, JScrollPane scrollPane) {
+
+        JPanel panel = new JPanel(new BorderLayout());
+        JLabel rowsLabel = new JLabel();
+        model.addTableModelListener((TableModelEvent event) -> {
+            rowsLabel.setText(describeRowsFetched(model));
+        });
+        rowsLabel.setText(describeRowsFetched(model));
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(rowsLabel, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    /**
+     * This method describes how many rows of the given model have been
+     * fetched so far.
+     *
+     * @param model the table model
+     * @return the description
+     */
+    private static String describeRowsFetched(CursorTableModel model) {
+
+        String rows = String.format("%,d", model.getFetchedRowCount());
+        if (model.getFailure() != null) {
+            return "Rows fetched: " + rows + " (fetching failed: " + model.getFailure() + ")";
+        }
+        if (!model.isComplete()) {
+            return "Rows fetched so far: " + rows + " (scroll down for more)";
+        }
+        return "Rows: " + rows;
+    }
+
     /**
      * This method uses the data access class for executing any given query or
      * set of queries. This is not executed on the event dispatch thread.
@@ -122,8 +333,27 @@ public class QueryWorker extends SwingWorker<List<Object>, Object> {
     protected List<Object> doInBackground() throws Exception {
 
         InputProcessorFactory factory = InputProcessorFactory.getInstance();
-        InputProcessor processor = factory.createInputProcessorForType(properties
+        InputProcessor inputProcessor = factory.createInputProcessorForType(properties
                 .getProperty(ConnectionProperties.DATABASE_TYPE));
-        return processor.executeInput(queryString, properties);
+        inputProcessor.setResultListener(this::publish);
+        processor = inputProcessor;
+        if (cancelRequested) {
+            inputProcessor.cancel();
+        }
+        return inputProcessor.executeInput(queryString, properties);
+    }
+
+    /**
+     * This method cancels the statement being executed on the server and
+     * skips the remaining statements. The results received so far are kept,
+     * followed by a message saying the execution was cancelled.
+     */
+    public void cancelQuery() {
+
+        cancelRequested = true;
+        InputProcessor inputProcessor = processor;
+        if (inputProcessor != null) {
+            inputProcessor.cancel();
+        }
     }
 }
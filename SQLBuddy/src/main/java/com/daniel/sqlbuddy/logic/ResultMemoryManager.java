@@ -0,0 +1,455 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.logic;
+
+import com.daniel.sqlbuddy.data.CursorTableModel;
+import com.daniel.sqlbuddy.data.ResultSpill;
+import com.daniel.sqlbuddy.data.ResultTable;
+import com.daniel.sqlbuddy.data.ResultTableModel;
+import com.daniel.sqlbuddy.data.SpilledTableModel;
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import java.awt.Window;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.table.TableModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class keeps the rows shown in the result tabs of every query window
+ * within a memory budget. Each tab is accounted by the estimated size of the
+ * rows its table model holds in memory. When the total passes the budget, the
+ * least recently viewed tabs are unloaded until it fits again: a result read
+ * into memory is written to a temporary file and shown from there, a result
+ * already shown from a file drops its pages in memory, and a result still
+ * reading from a cursor is closed and replaced by a message asking for the
+ * query to be run again. The tab selected in each window is never unloaded.
+ * The budget is read once, in megabytes, from the RESULT_MEMORY_BUDGET entry
+ * of the settings file that also holds the connection settings. The class
+ * implements the Singleton design pattern, as the budget is shared by every
+ * query window in the program. Its methods must be executed on the event
+ * dispatch thread.
+ *
+ * @author Bryan Daniel
+ */
+public class ResultMemoryManager {
+
+    /**
+     * The share of the maximum heap size used as the budget when none is
+     * configured
+     */
+    public static final int DEFAULT_BUDGET_HEAP_DIVISOR = 4;
+
+    /**
+     * The message shown in place of a result that was unloaded
+     */
+    public static final String UNLOADED_MESSAGE = "This result was unloaded to save memory."
+            + " Run the query again to reload it.";
+
+    /**
+     * The single ResultMemoryManager object
+     */
+    private static ResultMemoryManager manager = null;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * The accounted tabs keyed by tab component, in the order they were added
+     */
+    private final Map<JComponent, ResultTab> tabs;
+
+    /**
+     * The tabbed panes whose tab selection is followed
+     */
+    private final Set<JTabbedPane> tabbedPanes;
+
+    /**
+     * The number of bytes the rows of all tabs may take, where zero means no
+     * limit
+     */
+    private final long budget;
+
+    /**
+     * The number of times a tab has been viewed, used to order tabs by when
+     * they were last viewed
+     */
+    private long viewCount;
+
+    /**
+     * Private constructor - not called publicly
+     */
+    private ResultMemoryManager() {
+        logger = LogManager.getLogger(ResultMemoryManager.class);
+        tabs = new LinkedHashMap<>();
+        tabbedPanes = Collections.newSetFromMap(new WeakHashMap<>());
+        int megabytes = readBudgetMegabytes();
+        budget = megabytes < 0 ? Runtime.getRuntime().maxMemory() / DEFAULT_BUDGET_HEAP_DIVISOR
+                : megabytes * 1024L * 1024L;
+    }
+
+    /**
+     * This method reads the number of megabytes in the budget from the
+     * settings file.
+     *
+     * @return the number of megabytes, or -1 if none is configured
+     */
+    private int readBudgetMegabytes() {
+        File file = ConnectionProperties.getSettingsFile();
+        try {
+            String value = ConnectionProperties.readSettings(file)
+                    .getProperty(ConnectionProperties.RESULT_MEMORY_BUDGET);
+            return value == null || value.trim().isEmpty() ? -1 : Integer.parseInt(value.trim());
+        } catch (IOException | NumberFormatException ex) {
+            logger.error("The result memory budget could not be read from " + file + ".", ex);
+            return -1;
+        }
+    }
+
+    /**
+     * This method returns the single ResultMemoryManager. If the instance of
+     * ResultMemoryManager has not been created previously, it is created
+     * here.
+     *
+     * @return the ResultMemoryManager object
+     */
+    public synchronized static ResultMemoryManager getInstance() {
+        if (manager == null) {
+            manager = new ResultMemoryManager();
+        }
+        return manager;
+    }
+
+    /**
+     * This method accounts for the result shown in the given tab of the given
+     * tabbed pane and unloads other tabs if the budget is passed. Tabs
+     * without a table are ignored.
+     *
+     * @param tabbedPane the tabbed pane holding the tab
+     * @param component the tab component
+     * @param table the table showing the result
+     */
+    public void addTab(JTabbedPane tabbedPane, JComponent component, JTable table) {
+
+        TableModel model = table.getModel();
+        if (!(model instanceof ResultTableModel || model instanceof CursorTableModel
+                || model instanceof SpilledTableModel)) {
+            return;
+        }
+        if (tabbedPanes.add(tabbedPane)) {
+            tabbedPane.addChangeListener(event -> tabViewed(tabbedPane));
+        }
+        ResultTab tab = new ResultTab(tabbedPane, component, table);
+        tab.lastViewed = ++viewCount;
+        tabs.put(component, tab);
+        enforceBudget();
+    }
+
+    /**
+     * This method stops accounting for the tabs of the given tabbed pane. It
+     * is called before the tabs are removed.
+     *
+     * @param tabbedPane the tabbed pane
+     */
+    public void removeTabs(JTabbedPane tabbedPane) {
+        tabs.values().removeIf(tab -> tab.tabbedPane == tabbedPane);
+    }
+
+    /**
+     * This method unloads the least recently viewed tabs while the rows of
+     * all tabs take more than the budget. Tabs that were removed or whose
+     * window was closed are no longer accounted.
+     */
+    public void enforceBudget() {
+
+        tabs.values().removeIf(ResultTab::isGone);
+        if (budget <= 0) {
+            return;
+        }
+        long total = 0;
+        List<ResultTab> candidates = new ArrayList<>();
+        for (ResultTab tab : tabs.values()) {
+            if (tab.snapshot != null) {
+                continue;
+            }
+            tab.bytes = tab.estimateBytes();
+            total += tab.bytes;
+            if (tab.bytes > 0 && tab.tabbedPane.getSelectedComponent() != tab.component) {
+                candidates.add(tab);
+            }
+        }
+        candidates.sort((ResultTab first, ResultTab second) -> Long.compare(first.lastViewed, second.lastViewed));
+        Iterator<ResultTab> iterator = candidates.iterator();
+        while (total > budget && iterator.hasNext()) {
+            ResultTab tab = iterator.next();
+            logger.info("Unloading a result of " + tab.bytes + " bytes to stay within the result memory budget of "
+                    + budget + " bytes.");
+            total -= tab.bytes;
+            unload(tab);
+        }
+    }
+
+    /**
+     * This method returns the estimated number of bytes of the rows in memory
+     * of all tabs.
+     *
+     * @return the estimated number of bytes
+     */
+    public long getUsedBytes() {
+        long total = 0;
+        for (ResultTab tab : tabs.values()) {
+            total += tab.snapshot == null ? tab.estimateBytes() : 0;
+        }
+        return total;
+    }
+
+    /**
+     * This method records that the selected tab of the given tabbed pane has
+     * been viewed.
+     *
+     * @param tabbedPane the tabbed pane
+     */
+    private void tabViewed(JTabbedPane tabbedPane) {
+        ResultTab tab = tabs.get(tabbedPane.getSelectedComponent());
+        if (tab != null) {
+            tab.lastViewed = ++viewCount;
+        }
+    }
+
+    /**
+     * This method frees the rows in memory of the given tab.
+     *
+     * @param tab the tab
+     */
+    private void unload(ResultTab tab) {
+
+        TableModel model = tab.table.getModel();
+        if (model instanceof SpilledTableModel) {
+            ((SpilledTableModel) model).releasePages();
+        } else if (model instanceof ResultTableModel) {
+            tab.snapshot = new SnapshotWorker(tab, ((ResultTableModel) model).getTable());
+            tab.snapshot.execute();
+        } else {
+            replaceWithMessage(tab);
+        }
+    }
+
+    /**
+     * This method closes the result of the given tab and shows a message in
+     * its place asking for the query to be run again.
+     *
+     * @param tab the tab
+     */
+    private void replaceWithMessage(ResultTab tab) {
+
+        tabs.remove(tab.component);
+        TableModel model = tab.table.getModel();
+        if (model instanceof CursorTableModel) {
+            ((CursorTableModel) model).close();
+        }
+        int index = tab.tabbedPane.indexOfComponent(tab.component);
+        if (index >= 0) {
+            tab.tabbedPane.setComponentAt(index, new JLabel(UNLOADED_MESSAGE));
+        }
+    }
+
+    /**
+     * This method shows the rows of the given tab from the given file instead
+     * of from memory. If the tab was removed while the rows were written, the
+     * file is deleted.
+     *
+     * @param tab the tab
+     * @param model the model showing the rows from the file
+     */
+    private void showSnapshot(ResultTab tab, SpilledTableModel model) {
+
+        tab.snapshot = null;
+        if (tabs.get(tab.component) != tab) {
+            model.close();
+            return;
+        }
+        // the columns are unchanged, so the widths set for them are kept
+        tab.table.setAutoCreateColumnsFromModel(false);
+        tab.table.setModel(model);
+        tab.component.putClientProperty(TableModel.class, model);
+    }
+
+    /**
+     * This class holds a tab showing a result and when it was last viewed.
+     */
+    private static class ResultTab {
+
+        /**
+         * The tabbed pane holding the tab
+         */
+        private final JTabbedPane tabbedPane;
+
+        /**
+         * The tab component
+         */
+        private final JComponent component;
+
+        /**
+         * The table showing the result
+         */
+        private final JTable table;
+
+        /**
+         * The value of the view count when the tab was last viewed
+         */
+        private long lastViewed;
+
+        /**
+         * The estimated number of bytes of the rows in memory when the budget
+         * was last checked
+         */
+        private long bytes;
+
+        /**
+         * The worker writing the rows to a file, or null if none is running
+         */
+        private SnapshotWorker snapshot;
+
+        /**
+         * This constructor sets the tab and the table showing its result.
+         *
+         * @param tabbedPane the tabbed pane holding the tab
+         * @param component the tab component
+         * @param table the table showing the result
+         */
+        private ResultTab(JTabbedPane tabbedPane, JComponent component, JTable table) {
+            this.tabbedPane = tabbedPane;
+            this.component = component;
+            this.table = table;
+        }
+
+        /**
+         * This method determines whether the tab was removed from its tabbed
+         * pane or its window was closed.
+         *
+         * @return true if the tab is no longer shown, false otherwise
+         */
+        private boolean isGone() {
+            Window window = SwingUtilities.getWindowAncestor(tabbedPane);
+            return tabbedPane.indexOfComponent(component) < 0 || (window != null && !window.isDisplayable());
+        }
+
+        /**
+         * This method estimates the number of bytes of heap used by the rows
+         * of the tab. The size of a complete result is only estimated once.
+         *
+         * @return the estimated number of bytes
+         */
+        private long estimateBytes() {
+            TableModel model = table.getModel();
+            if (model instanceof ResultTableModel) {
+                return bytes > 0 ? bytes : ((ResultTableModel) model).getTable().estimateBytes();
+            }
+            if (model instanceof SpilledTableModel) {
+                return ((SpilledTableModel) model).estimateBytes();
+            }
+            return ((CursorTableModel) model).estimateBytes();
+        }
+    }
+
+    /**
+     * This SwingWorker writes the rows of a result to a temporary file and
+     * then shows them from the file in the tab.
+     */
+    private class SnapshotWorker extends SwingWorker<SpilledTableModel, Object> {
+
+        /**
+         * The tab showing the result
+         */
+        private final ResultTab tab;
+
+        /**
+         * The complete result
+         */
+        private final ResultTable rows;
+
+        /**
+         * This constructor sets the tab and its result.
+         *
+         * @param tab the tab showing the result
+         * @param rows the complete result
+         */
+        private SnapshotWorker(ResultTab tab, ResultTable rows) {
+            this.tab = tab;
+            this.rows = rows;
+        }
+
+        /**
+         * This method writes the rows to a temporary file a page at a time.
+         * This is not executed on the event dispatch thread.
+         *
+         * @return the model showing the rows from the file
+         * @throws IOException if the file cannot be written
+         */
+        @Override
+        protected SpilledTableModel doInBackground() throws IOException {
+
+            int pageSize = CursorTableModel.DEFAULT_PAGE_SIZE;
+            ResultSpill spill = new ResultSpill(rows.getColumnNames(), rows.getColumnTypes());
+            try {
+                for (int page = 0; page * pageSize < rows.getRowCount(); page++) {
+                    int firstRow = page * pageSize;
+                    spill.writePage(page, rows, firstRow, Math.min(pageSize, rows.getRowCount() - firstRow));
+                }
+            } catch (IOException ex) {
+                spill.close();
+                throw ex;
+            }
+            return new SpilledTableModel(spill, rows.getColumnNames(), rows.getRowCount(), pageSize,
+                    CursorTableModel.DEFAULT_WINDOW_PAGES);
+        }
+
+        /**
+         * This method shows the rows from the file, or closes the result and
+         * shows a message in its place if the file could not be written. This
+         * is executed on the event dispatch thread.
+         */
+        @Override
+        protected void done() {
+            try {
+                showSnapshot(tab, get());
+            } catch (InterruptedException | ExecutionException ex) {
+                logger.error("Exception occurred while writing a result to a temporary file.", ex);
+                tab.snapshot = null;
+                if (tabs.get(tab.component) == tab) {
+                    replaceWithMessage(tab);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.logic;
+
+import com.daniel.sqlbuddy.data.ScriptFileAccessor;
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JLabel;
+import javax.swing.JTabbedPane;
+import javax.swing.SwingWorker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This SwingWorker executes the statements of a script file directly from
+ * disk, leaving the query input untouched. The progress of the file is shown
+ * in the status label while the statements run.
+ *
+ * @author Bryan Daniel
+ */
+public class ScriptFileWorker extends SwingWorker<List<Object>, String> {
+
+    /**
+     * The script file to execute
+     */
+    private final File file;
+
+    /**
+     * The database connection properties
+     */
+    private final ConnectionProperties properties;
+
+    /**
+     * The tabbed pane holding results
+     */
+    private final JTabbedPane tabbedPane;
+
+    /**
+     * The label displaying the progress of the file
+     */
+    private final JLabel statusLabel;
+
+    /**
+     * The accessor executing the statements of the file
+     */
+    private final ScriptFileAccessor accessor;
+
+    /**
+     * The logger for this class
+     */
+    private Logger logger;
+
+    /**
+     * This constructor sets the values for the file, the connection
+     * properties, the tabbed pane, and the status label.
+     *
+     * @param file the script file
+     * @param properties the connection properties
+     * @param tabbedPane the tabbed pane
+     * @param statusLabel the status label
+     */
+    public ScriptFileWorker(File file, ConnectionProperties properties, JTabbedPane tabbedPane,
+            JLabel statusLabel) {
+        this.file = file;
+        this.properties = properties;
+        this.tabbedPane = tabbedPane;
+        this.statusLabel = statusLabel;
+        accessor = new ScriptFileAccessor();
+        logger = LogManager.getLogger(ScriptFileWorker.class);
+    }
+
+    /**
+     * This method executes the statements of the file, publishing the progress
+     * as it goes. This is not executed on the event dispatch thread.
+     *
+     * @return the results of the file execution
+     * @throws Exception if an exception occurs
+     */
+    @Override
+    protected List<Object> doInBackground() throws Exception {
+        publish("Executing " + file.getName() + "...");
+        return accessor.executeFile(file, properties, this::publish);
+    }
+
+    /**
+     * This method shows the latest progress message in the status label. This
+     * is executed on the event dispatch thread.
+     *
+     * @param messages the progress messages
+     */
+    @Override
+    protected void process(List<String> messages) {
+        statusLabel.setText(messages.get(messages.size() - 1));
+    }
+
+    /**
+     * This method displays the results of the file and its final progress.
+     * This is executed on the event dispatch thread.
+     */
+    @Override
+    protected void done() {
+        try {
+            List<Object> results = get();
+            QueryWorker.showResults(results, tabbedPane);
+            statusLabel.setText(file.getName() + ": " + results.get(results.size() - 1));
+        } catch (InterruptedException | ExecutionException ex) {
+            logger.error("Exception occurred in ScriptFileWorker.", ex);
+            statusLabel.setText("Execution of " + file.getName() + " failed.");
+        }
+    }
+
+    /**
+     * This method cancels the statement being executed on the server and
+     * skips the remaining statements of the file. The results received so
+     * far are kept, followed by a message saying the execution was
+     * cancelled.
+     */
+    public void cancelExecution() {
+        accessor.cancel();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.logic;
+
+import com.daniel.sqlbuddy.data.ConnectionPool;
+import com.daniel.sqlbuddy.data.ConnectionPoolManager;
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JLabel;
+import javax.swing.SwingWorker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This SwingWorker warms up the connection pool of the query window in a
+ * background thread so the first queries do not pay the cost of connecting.
+ * The warm-up state and timing are shown on the status label.
+ *
+ * @author Bryan Daniel
+ */
+public class WarmUpWorker extends SwingWorker<String, String> {
+
+    /**
+     * The database connection properties
+     */
+    private final ConnectionProperties properties;
+
+    /**
+     * The label displaying the warm-up state
+     */
+    private final JLabel statusLabel;
+
+    /**
+     * The logger for this class
+     */
+    private Logger logger;
+
+    /**
+     * This constructor sets the values for the connection properties and the
+     * status label.
+     *
+     * @param properties the connection properties
+     * @param statusLabel the status label
+     */
+    public WarmUpWorker(ConnectionProperties properties, JLabel statusLabel) {
+        this.properties = properties;
+        this.statusLabel = statusLabel;
+        logger = LogManager.getLogger(WarmUpWorker.class);
+    }
+
+    /**
+     * This method displays the latest warm-up state on the status label. This
+     * is executed on the event dispatch thread.
+     *
+     * @param states the states reached since the last update
+     */
+    @Override
+    protected void process(List<String> states) {
+        statusLabel.setText(states.get(states.size() - 1));
+    }
+
+    /**
+     * This method displays the result of the warm-up on the status label. This
+     * is executed on the event dispatch thread.
+     */
+    @Override
+    protected void done() {
+        try {
+            statusLabel.setText(get());
+        } catch (InterruptedException | ExecutionException ex) {
+            logger.error("Exception occurred warming up the connection pool.", ex);
+            statusLabel.setText("Connection warm-up failed.");
+        }
+    }
+
+    /**
+     * This method opens the warm-up connections of the pool. This is not
+     * executed on the event dispatch thread.
+     *
+     * @return the result message
+     * @throws Exception if an exception occurs
+     */
+    @Override
+    protected String doInBackground() throws Exception {
+
+        publish("Warming up connections...");
+        long start = System.currentTimeMillis();
+        ConnectionPool pool = ConnectionPoolManager.getInstance().getPool(properties);
+        int opened = pool.warmUp();
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Opened " + opened + " warm-up connection(s) in " + elapsed + " ms.");
+        return "Connections ready: " + pool.getOpenCount() + " open (" + opened
+                + " warmed up in " + elapsed + " ms)";
+    }
+}
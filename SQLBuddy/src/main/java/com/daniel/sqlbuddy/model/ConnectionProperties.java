@@ -15,11 +15,20 @@
  */
 package com.daniel.sqlbuddy.model;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import org.apache.commons.lang3.Validate;
 
 /**
- * This properties class stores values for database connections.
+ * This properties class stores values for database connections. The settings
+ * that tune pooling, execution and fetching are read from the settings file,
+ * as the setup window asks only for what identifies the connection.
  *
  * @author Bryan Daniel
  */
@@ -55,6 +64,23 @@ public class ConnectionProperties extends Properties {
      */
     public static final String DATABASE_TYPE = "databaseType";
 
+    /**
+     * The fetch strategy reading result rows through a server-side cursor, a
+     * fetch size at a time
+     */
+    public static final String FETCH_CURSOR = "cursor";
+
+    /**
+     * The fetch strategy streaming result rows from the server as they are
+     * read
+     */
+    public static final String FETCH_STREAM = "stream";
+
+    /**
+     * The fetch strategy leaving result fetching to the driver defaults
+     */
+    public static final String FETCH_DRIVER = "driver";
+
     /**
      * The key for the database URl protocol
      */
@@ -95,6 +121,176 @@ public class ConnectionProperties extends Properties {
      */
     public static final String PASSWORD = "password";
 
+    /**
+     * The key for the minimum number of idle pooled connections to retain
+     */
+    public static final String POOL_MIN_SIZE = "poolMinSize";
+
+    /**
+     * The key for the maximum number of pooled connections
+     */
+    public static final String POOL_MAX_SIZE = "poolMaxSize";
+
+    /**
+     * The key for the number of seconds a pooled connection may sit idle
+     * before it is evicted
+     */
+    public static final String POOL_IDLE_TIMEOUT = "poolIdleTimeout";
+
+    /**
+     * The key for the validation policy applied when a pooled connection is
+     * borrowed
+     */
+    public static final String POOL_VALIDATION = "poolValidation";
+
+    /**
+     * The key for the number of seconds between keep-alive checks of idle
+     * pooled connections
+     */
+    public static final String KEEP_ALIVE_INTERVAL = "keepAliveInterval";
+
+    /**
+     * The key for the number of connections opened in the background when the
+     * query window opens
+     */
+    public static final String POOL_WARM_UP_SIZE = "poolWarmUpSize";
+
+    /**
+     * The key for the semicolon-separated statements run on every new
+     * connection
+     */
+    public static final String SESSION_INIT_SQL = "sessionInitSql";
+
+    /**
+     * The key for the number of seconds allowed for establishing a connection
+     */
+    public static final String LOGIN_TIMEOUT = "loginTimeout";
+
+    /**
+     * The key for the number of seconds a connection waits on a socket read
+     * before failing
+     */
+    public static final String SOCKET_TIMEOUT = "socketTimeout";
+
+    /**
+     * The key for the name of the character set of executed script files
+     */
+    public static final String SCRIPT_CHARSET = "scriptCharset";
+
+    /**
+     * The key for the maximum number of consecutive data manipulation
+     * statements sent to the database in one batch
+     */
+    public static final String BATCH_SIZE = "batchSize";
+
+    /**
+     * The key for the number of prepared statements cached for each pooled
+     * connection, where zero turns statement normalization off
+     */
+    public static final String STATEMENT_CACHE_SIZE = "statementCacheSize";
+
+    /**
+     * The key for the number of consecutive read-only statements run at once
+     * on separate pooled connections
+     */
+    public static final String PARALLEL_QUERIES = "parallelQueries";
+
+    /**
+     * The key for the number of result rows read from the cursor at a time
+     */
+    public static final String PAGE_SIZE = "pageSize";
+
+    /**
+     * The key for the number of pages of result rows kept in memory for each
+     * result table
+     */
+    public static final String RESULT_WINDOW_PAGES = "resultWindowPages";
+
+    /**
+     * The key for the number of seconds a statement may run before it is
+     * cancelled, where zero means no limit
+     */
+    public static final String QUERY_TIMEOUT = "queryTimeout";
+
+    /**
+     * The key for the number of megabytes of rows a result keeps in memory
+     * before its rows are written to a temporary file, where zero means
+     * results are never written to disk
+     */
+    public static final String SPILL_THRESHOLD = "spillThreshold";
+
+    /**
+     * The key for how result rows are fetched from the server, one of
+     * FETCH_CURSOR, FETCH_STREAM or FETCH_DRIVER, where the default depends on
+     * the database type
+     */
+    public static final String FETCH_STRATEGY = "fetchStrategy";
+
+    /**
+     * The key for the number of result rows fetched from the server per
+     * round trip
+     */
+    public static final String FETCH_SIZE = "fetchSize";
+
+    /**
+     * The key for the number of kilobytes of rows the fetch size is adjusted
+     * to fetch per round trip while a result is first read, where zero keeps
+     * the fetch size fixed
+     */
+    public static final String FETCH_TARGET_SIZE = "fetchTargetSize";
+
+    /**
+     * The key for the smallest fetch size chosen when it is adjusted
+     */
+    public static final String FETCH_SIZE_MIN = "fetchSizeMin";
+
+    /**
+     * The key for the largest fetch size chosen when it is adjusted
+     */
+    public static final String FETCH_SIZE_MAX = "fetchSizeMax";
+
+    /**
+     * The key for the number of megabytes of query results cached for the
+     * profile, where zero turns the result cache off
+     */
+    public static final String RESULT_CACHE_SIZE = "resultCacheSize";
+
+    /**
+     * The key for the number of seconds a cached query result is shown
+     * instead of running the query again
+     */
+    public static final String RESULT_CACHE_TTL = "resultCacheTtl";
+
+    /**
+     * The key in the settings file for the number of megabytes of rows the
+     * result tabs of every query window may keep in memory together, where
+     * zero means no limit. The budget is shared by the whole program, so it
+     * is not one of the SETTING_KEYS copied into each connection.
+     */
+    public static final String RESULT_MEMORY_BUDGET = "resultMemoryBudget";
+
+    /**
+     * The name of the system property holding the path of the settings file,
+     * which replaces the default location
+     */
+    public static final String SETTINGS_FILE_PROPERTY = "sqlbuddy.settings";
+
+    /**
+     * The name of the settings file in the user home directory
+     */
+    public static final String SETTINGS_FILE_NAME = ".sqlbuddy.properties";
+
+    /**
+     * The keys of the connection settings that are read from the settings
+     * file
+     */
+    public static final List<String> SETTING_KEYS = Collections.unmodifiableList(Arrays.asList(
+            POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_IDLE_TIMEOUT, POOL_VALIDATION, KEEP_ALIVE_INTERVAL,
+            POOL_WARM_UP_SIZE, SESSION_INIT_SQL, LOGIN_TIMEOUT, SOCKET_TIMEOUT, SCRIPT_CHARSET, BATCH_SIZE,
+            STATEMENT_CACHE_SIZE, PARALLEL_QUERIES, PAGE_SIZE, RESULT_WINDOW_PAGES, QUERY_TIMEOUT,
+            SPILL_THRESHOLD, FETCH_STRATEGY, FETCH_SIZE, FETCH_TARGET_SIZE, FETCH_SIZE_MIN, FETCH_SIZE_MAX,
+            RESULT_CACHE_SIZE, RESULT_CACHE_TTL));
+
     /**
      * This constructor sets the property values with the given parameters.
      *
@@ -111,6 +307,77 @@ public class ConnectionProperties extends Properties {
         validateAndSet(databaseType, driverPath, host, databaseName, port, username, password);
     }
 
+    /**
+     * This method returns the integer value of the property with the given key
+     * or the default value if the property is not set or is not a valid
+     * integer.
+     *
+     * @param key the property key
+     * @param defaultValue the value to use when the property is not usable
+     * @return the integer value of the property
+     */
+    public int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * This method returns the settings file, named by the system property
+     * SETTINGS_FILE_PROPERTY or found in the user home directory.
+     *
+     * @return the settings file, which may not exist
+     */
+    public static File getSettingsFile() {
+        String path = System.getProperty(SETTINGS_FILE_PROPERTY);
+        if (path != null && !path.trim().isEmpty()) {
+            return new File(path.trim());
+        }
+        return new File(System.getProperty("user.home"), SETTINGS_FILE_NAME);
+    }
+
+    /**
+     * This method reads the given properties file and sets the connection
+     * settings it holds. Only the keys listed in SETTING_KEYS are set, so the
+     * file cannot change the connection identity or credentials. A file that
+     * does not exist sets nothing.
+     *
+     * @param file the settings file
+     * @throws IOException if the file exists but cannot be read
+     */
+    public void loadSettings(File file) throws IOException {
+        Properties settings = readSettings(file);
+        for (String key : SETTING_KEYS) {
+            String value = settings.getProperty(key);
+            if (value != null && !value.trim().isEmpty()) {
+                setProperty(key, value.trim());
+            }
+        }
+    }
+
+    /**
+     * This method reads every entry of the given settings file.
+     *
+     * @param file the settings file
+     * @return the entries of the file, or no entries if it does not exist
+     * @throws IOException if the file exists but cannot be read
+     */
+    public static Properties readSettings(File file) throws IOException {
+        Properties settings = new Properties();
+        if (file.isFile()) {
+            try (InputStream input = new FileInputStream(file)) {
+                settings.load(input);
+            }
+        }
+        return settings;
+    }
+
     /**
      * This method validates property values before setting them.
      *
@@ -35,6 +35,33 @@ public class SQLFileFilter extends FileFilter {
      */
     public static final String SQL_EXTENSION = "sql";
 
+    /**
+     * The extension for compressed files
+     */
+    public static final String GZIP_EXTENSION = "gz";
+
+    /**
+     * Indicates compressed files may be selected
+     */
+    private final boolean compressedAllowed;
+
+    /**
+     * This constructor creates a filter for uncompressed files only.
+     */
+    public SQLFileFilter() {
+        this(false);
+    }
+
+    /**
+     * This constructor creates a filter that may also accept compressed text
+     * or SQL files.
+     *
+     * @param compressedAllowed true if files ending in .gz may be selected
+     */
+    public SQLFileFilter(boolean compressedAllowed) {
+        this.compressedAllowed = compressedAllowed;
+    }
+
     @Override
     public boolean accept(File file) {
 
@@ -42,6 +69,10 @@ public class SQLFileFilter extends FileFilter {
         String extension = null;
         if (!file.isDirectory()) {
             extension = getExtension(file);
+            if (compressedAllowed && GZIP_EXTENSION.equals(extension)) {
+                String name = file.getName();
+                extension = getExtension(new File(name.substring(0, name.length() - GZIP_EXTENSION.length() - 1)));
+            }
         } else {
             isDirectory = true;
         }
@@ -50,7 +81,7 @@ public class SQLFileFilter extends FileFilter {
 
     @Override
     public String getDescription() {
-        return "Text or SQL files.";
+        return compressedAllowed ? "Text or SQL files, optionally gzip compressed." : "Text or SQL files.";
     }
 
     /**
@@ -65,6 +65,11 @@ public class ConnectionSetupWindow extends JFrame {
      */
     public static final String CONNECT_COMMAND = "Connect";
     
+    /**
+     * The action command for the cancel button
+     */
+    public static final String CANCEL_COMMAND = "Cancel";
+    
     /**
      * The action command for the exit button
      */
@@ -17,7 +17,9 @@ package com.daniel.sqlbuddy.ui;
 
 import com.daniel.sqlbuddy.controller.SetupListener;
 import com.daniel.sqlbuddy.model.ConnectionProperties;
+import com.daniel.sqlbuddy.util.DatabaseUtil;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.BROWSE_COMMAND;
+import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.CANCEL_COMMAND;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.CONNECT_COMMAND;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.EXIT_COMMAND;
 import static com.daniel.sqlbuddy.ui.ConnectionSetupWindow.FRAME_HEIGHT;
@@ -58,7 +60,7 @@ public class ConnectionSetupWindowAssembler implements WindowAssembler {
     public JFrame assembleWindow() {
         ConnectionSetupWindow setupWindow = new ConnectionSetupWindow();
         setupWindow.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        setupWindow.setLayout(new GridLayout(6, 1));
+        setupWindow.setLayout(new GridLayout(7, 1));
 
         GridBagConstraints center = new GridBagConstraints();
         center.anchor = GridBagConstraints.CENTER;
@@ -131,6 +133,21 @@ public class ConnectionSetupWindowAssembler implements WindowAssembler {
         portTextFieldPanel.add(portTextField);
         portInput.add(portTextFieldPanel);
 
+        // connection timeout
+        JPanel timeoutInput = new SetupPanel();
+        timeoutInput.setLayout(new GridLayout(1, 2));
+
+        // connection timeout label
+        timeoutInput.add(new JLabel("Enter Timeout (seconds):", SwingConstants.RIGHT));
+
+        // connection timeout input
+        JPanel timeoutTextFieldPanel = new SetupPanel();
+        timeoutTextFieldPanel.setLayout(new GridBagLayout());
+        JTextField timeoutTextField = new JTextField(String.valueOf(DatabaseUtil.DEFAULT_LOGIN_TIMEOUT_SECONDS));
+        timeoutTextField.setPreferredSize(new Dimension(INPUT_WIDTH, INPUT_HEIGHT));
+        timeoutTextFieldPanel.add(timeoutTextField);
+        timeoutInput.add(timeoutTextFieldPanel);
+
         // credentials
         JPanel credentialsInput = new SetupPanel();
         credentialsInput.setLayout(new GridLayout(2, 2));
@@ -175,7 +192,7 @@ public class ConnectionSetupWindowAssembler implements WindowAssembler {
         JLabel resultLabel = new JLabel();        
         JButton testConnectionButton = new JButton(TEST_COMMAND);
         SetupListener listener = new SetupListener(databaseTypeComboBox, driverPathTextField,
-                databaseNameTextField, portTextField, usernameField, passwordField,
+                databaseNameTextField, portTextField, timeoutTextField, usernameField, passwordField,
                 resultLabel);
         testConnectionButton.addActionListener(listener);
         browseButton.addActionListener(listener);
@@ -203,12 +220,16 @@ public class ConnectionSetupWindowAssembler implements WindowAssembler {
         //The exit and connect buttons
         JPanel finalButtonPanel = new JPanel();
         finalButtonPanel.setOpaque(false);
-        finalButtonPanel.setLayout(new GridLayout(1, 2));
+        finalButtonPanel.setLayout(new GridLayout(1, 3));
         
         //The exit button
         JButton exitButton = new JButton(EXIT_COMMAND);
         exitButton.addActionListener(listener);
         
+        //The cancel button
+        JButton cancelButton = new JButton(CANCEL_COMMAND);
+        cancelButton.addActionListener(listener);
+        
         //The connect button
         JButton connectButton = new JButton(CONNECT_COMMAND);
         connectButton.addActionListener(listener);
@@ -223,15 +244,15 @@ public class ConnectionSetupWindowAssembler implements WindowAssembler {
 
         //These statements set up the horizontal and vertical grouping for the panel
         finalButtonGroup.setHorizontalGroup(finalButtonGroup.createSequentialGroup()
-                .addComponent(exitButton).addComponent(connectButton)
+                .addComponent(exitButton).addComponent(cancelButton).addComponent(connectButton)
                 .addGroup(finalButtonGroup.createParallelGroup(GroupLayout.Alignment.CENTER)));
 
         finalButtonGroup.setVerticalGroup(finalButtonGroup.createSequentialGroup()
                 .addGroup(finalButtonGroup.createParallelGroup(GroupLayout.Alignment.CENTER)
-                .addComponent(exitButton).addComponent(connectButton)));
+                .addComponent(exitButton).addComponent(cancelButton).addComponent(connectButton)));
 
-        finalButtonGroup.linkSize(SwingConstants.HORIZONTAL, exitButton, connectButton);
-        finalButtonGroup.linkSize(SwingConstants.VERTICAL, exitButton, connectButton);
+        finalButtonGroup.linkSize(SwingConstants.HORIZONTAL, exitButton, cancelButton, connectButton);
+        finalButtonGroup.linkSize(SwingConstants.VERTICAL, exitButton, cancelButton, connectButton);
         
         buttonPanel.add(testButtonPanel);
         buttonPanel.add(finalButtonPanel);
@@ -240,6 +261,7 @@ public class ConnectionSetupWindowAssembler implements WindowAssembler {
         setupWindow.add(driverPathInput);
         setupWindow.add(databaseNameInput);
         setupWindow.add(portInput);
+        setupWindow.add(timeoutInput);
         setupWindow.add(credentialsInput);
         setupWindow.add(buttonPanel);
 
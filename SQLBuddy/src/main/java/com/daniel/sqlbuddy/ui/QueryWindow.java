@@ -125,6 +125,11 @@ public class QueryWindow extends JFrame {
      */
     public static final String RUN_QUERY_COMMAND = "Run Query";
 
+    /**
+     * The cancel command
+     */
+    public static final String CANCEL_QUERY_COMMAND = "Cancel Query";
+
     /**
      * The constructor calls the super constructor.
      *
@@ -18,8 +18,11 @@ package com.daniel.sqlbuddy.ui;
 import com.daniel.sqlbuddy.controller.FileListener;
 import com.daniel.sqlbuddy.controller.QueryListener;
 import com.daniel.sqlbuddy.controller.QueryTextAreaKeyListener;
+import com.daniel.sqlbuddy.data.ConnectionPoolManager;
+import com.daniel.sqlbuddy.logic.WarmUpWorker;
 import com.daniel.sqlbuddy.model.ConnectionProperties;
 import static com.daniel.sqlbuddy.ui.QueryWindow.BUTTONS_BORDER_TITLE;
+import static com.daniel.sqlbuddy.ui.QueryWindow.CANCEL_QUERY_COMMAND;
 import static com.daniel.sqlbuddy.ui.QueryWindow.CENTER_PANEL_WIDTH;
 import static com.daniel.sqlbuddy.ui.QueryWindow.CHANGE_CONNECTION_COMMAND;
 import static com.daniel.sqlbuddy.ui.QueryWindow.CLEAR_COMMAND;
@@ -45,8 +48,9 @@ import java.awt.GridLayout;
 import java.awt.LinearGradientPaint;
 import java.awt.RadialGradientPaint;
 import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.geom.Point2D;
 import javax.swing.BorderFactory;
 import javax.swing.GroupLayout;
@@ -82,10 +86,20 @@ public class QueryWindowAssembler implements WindowAssembler {
      */
     private JTextPane queryTextPane;
 
+    /**
+     * The label displaying the connection and execution status
+     */
+    private JLabel statusLabel;
+
+    /**
+     * The tabbed pane holding results
+     */
+    private JTabbedPane tabbedPane;
+
     /**
      * The action listener for the query window
      */
-    private ActionListener queryListener;
+    private QueryListener queryListener;
 
     /**
      * The theme manager used to create themes
@@ -123,9 +137,19 @@ public class QueryWindowAssembler implements WindowAssembler {
         if (theme == null) {
             theme = themeManager.createTheme(ThemeManager.ThemeSelection.METALLIC);
         }
+        statusLabel = new JLabel(" ");
         buildContentPane(queryWindow);
         buildMenuBar(queryWindow);
 
+        // pooled connections are closed when the window is disposed
+        queryWindow.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                ConnectionPoolManager.getInstance().closePools(properties);
+            }
+        });
+        new WarmUpWorker(properties, statusLabel).execute();
+
         return queryWindow;
     }
 
@@ -152,8 +176,12 @@ public class QueryWindowAssembler implements WindowAssembler {
          * This method sets the necessary values for the query panel.
          */
         private void setValues() {
+            setLayout(new BorderLayout());
             add(new JLabel("<html><head><style>.title{text-align:center;font-size:150%;color:black;}"
-                    + "</style></head><p class=\"title\">" + GUI_TITLE_STRING + "</p></html>"), JLabel.CENTER);
+                    + "</style></head><p class=\"title\">" + GUI_TITLE_STRING + "</p></html>", JLabel.CENTER),
+                    BorderLayout.CENTER);
+            statusLabel.setHorizontalAlignment(JLabel.CENTER);
+            add(statusLabel, BorderLayout.SOUTH);
             TitledBorder titledBorder;
             titledBorder
                     = BorderFactory.createTitledBorder(BorderFactory.createEtchedBorder(),
@@ -395,7 +423,7 @@ public class QueryWindowAssembler implements WindowAssembler {
          * This method sets the necessary values for the button panel.
          */
         private void setValues() {
-            setLayout(new GridLayout(1, 4));
+            setLayout(new GridLayout(1, 5));
             TitledBorder titledBorder;
             titledBorder
                     = BorderFactory.createTitledBorder(BorderFactory.createEtchedBorder(),
@@ -415,6 +443,9 @@ public class QueryWindowAssembler implements WindowAssembler {
             //The button to execute the statements in the input window
             JButton queryButton = new QueryWindowButton(RUN_QUERY_COMMAND);
 
+            //The button to cancel the running statements
+            JButton cancelButton = new QueryWindowButton(CANCEL_QUERY_COMMAND);
+
             //GroupLayout is declared.
             GroupLayout buttonGroup = new GroupLayout(this);
             this.setLayout(buttonGroup);
@@ -425,18 +456,19 @@ public class QueryWindowAssembler implements WindowAssembler {
 
             //These statements set up the horizontal and vertical grouping for the panel
             buttonGroup.setHorizontalGroup(buttonGroup.createSequentialGroup().addComponent(exitButton).addComponent(changeConnectionButton)
-                    .addComponent(fileAndDbButton).addComponent(queryButton).addGroup(buttonGroup.createParallelGroup(GroupLayout.Alignment.CENTER)));
+                    .addComponent(fileAndDbButton).addComponent(queryButton).addComponent(cancelButton).addGroup(buttonGroup.createParallelGroup(GroupLayout.Alignment.CENTER)));
 
             buttonGroup.setVerticalGroup(buttonGroup.createSequentialGroup().addGroup(buttonGroup.createParallelGroup(GroupLayout.Alignment.CENTER)
-                    .addComponent(exitButton).addComponent(changeConnectionButton).addComponent(fileAndDbButton).addComponent(queryButton)));
+                    .addComponent(exitButton).addComponent(changeConnectionButton).addComponent(fileAndDbButton).addComponent(queryButton).addComponent(cancelButton)));
 
-            buttonGroup.linkSize(SwingConstants.HORIZONTAL, exitButton, changeConnectionButton, fileAndDbButton, queryButton);
-            buttonGroup.linkSize(SwingConstants.VERTICAL, exitButton, changeConnectionButton, fileAndDbButton, queryButton);
+            buttonGroup.linkSize(SwingConstants.HORIZONTAL, exitButton, changeConnectionButton, fileAndDbButton, queryButton, cancelButton);
+            buttonGroup.linkSize(SwingConstants.VERTICAL, exitButton, changeConnectionButton, fileAndDbButton, queryButton, cancelButton);
 
             add(exitButton);
             add(changeConnectionButton);
             add(fileAndDbButton);
             add(queryButton);
+            add(cancelButton);
         }
 
         /**
@@ -519,7 +551,7 @@ public class QueryWindowAssembler implements WindowAssembler {
         queryTextPane.addKeyListener(keyListener);
 
         ResultsPanel resultsPanel = new ResultsPanel();
-        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane = new JTabbedPane();
         tabbedPane.setTabLayoutPolicy(JTabbedPane.SCROLL_TAB_LAYOUT);
         resultsPanel.add(tabbedPane);
 
@@ -549,7 +581,8 @@ public class QueryWindowAssembler implements WindowAssembler {
         JMenu fileMenu = new JMenu(QueryWindow.FILE_MENU);
         fileMenu.setMnemonic(KeyEvent.VK_F);
 
-        FileListener fileListener = new FileListener(queryTextPane);
+        FileListener fileListener = new FileListener(queryTextPane, properties, tabbedPane, statusLabel,
+                queryListener);
 
         JMenuItem openMenuItem = new JMenuItem(FileListener.OPEN_COMMAND);
         openMenuItem.setToolTipText("Open file");
@@ -561,6 +594,11 @@ public class QueryWindowAssembler implements WindowAssembler {
         saveAsMenuItem.setToolTipText("Save file");
         saveAsMenuItem.addActionListener(fileListener);
 
+        JMenuItem executeFileMenuItem = new JMenuItem(FileListener.EXECUTE_FILE_COMMAND);
+        executeFileMenuItem.setMnemonic(KeyEvent.VK_X);
+        executeFileMenuItem.setToolTipText("Execute a file without opening it");
+        executeFileMenuItem.addActionListener(fileListener);
+
         JMenuItem exitMenuItem = new JMenuItem(QueryWindow.EXIT_COMMAND);
         exitMenuItem.setMnemonic(KeyEvent.VK_E);
         exitMenuItem.setToolTipText("Exit application");
@@ -587,6 +625,7 @@ public class QueryWindowAssembler implements WindowAssembler {
 
         fileMenu.add(openMenuItem);
         fileMenu.add(saveAsMenuItem);
+        fileMenu.add(executeFileMenuItem);
         fileMenu.add(exitMenuItem);
         editMenu.add(themesMenuItem);
         menubar.add(fileMenu);
@@ -20,6 +20,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
 import org.apache.logging.log4j.LogManager;
 
 /**
@@ -29,6 +30,17 @@ import org.apache.logging.log4j.LogManager;
  */
 public class DatabaseUtil {
 
+    /**
+     * The default number of seconds allowed for establishing a connection
+     */
+    public static final int DEFAULT_LOGIN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * The default number of result rows fetched from the server per round
+     * trip
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
     /**
      * Private constructor - not called
      */
@@ -107,4 +119,136 @@ public class DatabaseUtil {
         }
         return connectionString;
     }
+
+    /**
+     * This method uses the given properties to generate and return the
+     * database URL used for executing queries. For MySQL databases, the URL
+     * allows multiple statements to be sent in a single query.
+     *
+     * @param properties the database connection properties
+     * @return the database URL for queries
+     */
+    public static String createQueryUrl(ConnectionProperties properties) {
+        StringBuilder connectionString = createDatabaseUrl(properties);
+        if (properties.getProperty(ConnectionProperties.DATABASE_TYPE).equals(ConnectionProperties.MYSQL)) {
+            connectionString.append("?allowMultiQueries=true");
+        }
+        return connectionString.toString();
+    }
+
+    /**
+     * This method returns the fetch strategy of the given properties. Without
+     * one, MySQL streams rows, since its driver otherwise reads a whole result
+     * before returning its first row. SQL Server fetches through a server
+     * cursor, as its driver buffers the rest of an adaptively streamed result
+     * in memory as soon as another statement runs on the connection. Oracle
+     * fetches through its cursor, a fetch size at a time rather than its small
+     * default prefetch.
+     *
+     * @param properties the database connection properties
+     * @return the fetch strategy, one of the FETCH constants of
+     * ConnectionProperties
+     */
+    public static String getFetchStrategy(ConnectionProperties properties) {
+
+        String strategy = properties.getProperty(ConnectionProperties.FETCH_STRATEGY);
+        if (ConnectionProperties.FETCH_CURSOR.equals(strategy) || ConnectionProperties.FETCH_STREAM.equals(strategy)
+                || ConnectionProperties.FETCH_DRIVER.equals(strategy)) {
+            return strategy;
+        }
+        switch (properties.getProperty(ConnectionProperties.DATABASE_TYPE)) {
+            case ConnectionProperties.MYSQL:
+                return ConnectionProperties.FETCH_STREAM;
+            case ConnectionProperties.ORACLE_THIN:
+                return ConnectionProperties.FETCH_CURSOR;
+            case ConnectionProperties.ORACLE_OCI:
+                return ConnectionProperties.FETCH_CURSOR;
+            case ConnectionProperties.MS_SQL:
+                return ConnectionProperties.FETCH_CURSOR;
+            default:
+                return ConnectionProperties.FETCH_DRIVER;
+        }
+    }
+
+    /**
+     * This method returns the number of result rows fetched per round trip
+     * for the given properties.
+     *
+     * @param properties the database connection properties
+     * @return the fetch size
+     */
+    public static int getFetchSize(ConnectionProperties properties) {
+        return Math.max(1, properties.getIntProperty(ConnectionProperties.FETCH_SIZE, DEFAULT_FETCH_SIZE));
+    }
+
+    /**
+     * This method uses the given properties to create the connection
+     * information passed to a database driver. The information holds the
+     * credentials, the login and socket timeouts, and the settings of the
+     * fetch strategy in the form understood by the driver for the database
+     * type.
+     *
+     * @param properties the database connection properties
+     * @return the connection information for the driver
+     */
+    public static Properties createConnectionInfo(ConnectionProperties properties) {
+        Properties info = new Properties();
+        info.setProperty("user", properties.getProperty(ConnectionProperties.USERNAME));
+        info.setProperty("password", properties.getProperty(ConnectionProperties.PASSWORD));
+
+        int loginTimeout = properties.getIntProperty(ConnectionProperties.LOGIN_TIMEOUT,
+                DEFAULT_LOGIN_TIMEOUT_SECONDS);
+        int socketTimeout = properties.getIntProperty(ConnectionProperties.SOCKET_TIMEOUT, 0);
+        String fetchStrategy = getFetchStrategy(properties);
+        String fetchSize = String.valueOf(getFetchSize(properties));
+        switch (properties.getProperty(ConnectionProperties.DATABASE_TYPE)) {
+            case ConnectionProperties.MYSQL:
+                setTimeout(info, "connectTimeout", loginTimeout * 1000L);
+                setTimeout(info, "socketTimeout", socketTimeout * 1000L);
+                if (fetchStrategy.equals(ConnectionProperties.FETCH_CURSOR)) {
+                    info.setProperty("useCursorFetch", "true");
+                    info.setProperty("defaultFetchSize", fetchSize);
+                }
+                break;
+            case ConnectionProperties.ORACLE_THIN:
+                setTimeout(info, "oracle.net.CONNECT_TIMEOUT", loginTimeout * 1000L);
+                setTimeout(info, "oracle.jdbc.ReadTimeout", socketTimeout * 1000L);
+                if (!fetchStrategy.equals(ConnectionProperties.FETCH_DRIVER)) {
+                    info.setProperty("defaultRowPrefetch", fetchSize);
+                }
+                break;
+            case ConnectionProperties.ORACLE_OCI:
+                setTimeout(info, "oracle.net.CONNECT_TIMEOUT", loginTimeout * 1000L);
+                setTimeout(info, "oracle.jdbc.ReadTimeout", socketTimeout * 1000L);
+                if (!fetchStrategy.equals(ConnectionProperties.FETCH_DRIVER)) {
+                    info.setProperty("defaultRowPrefetch", fetchSize);
+                }
+                break;
+            case ConnectionProperties.MS_SQL:
+                setTimeout(info, "loginTimeout", loginTimeout);
+                setTimeout(info, "socketTimeout", socketTimeout * 1000L);
+                // adaptive response buffering, which streams rows, is already the driver default
+                if (fetchStrategy.equals(ConnectionProperties.FETCH_CURSOR)) {
+                    info.setProperty("selectMethod", "cursor");
+                }
+                break;
+            default:
+                break;
+        }
+        return info;
+    }
+
+    /**
+     * This method sets a driver timeout property if the given timeout is
+     * greater than zero.
+     *
+     * @param info the connection information
+     * @param key the driver property name
+     * @param timeout the timeout value
+     */
+    private static void setTimeout(Properties info, String key, long timeout) {
+        if (timeout > 0) {
+            info.setProperty(key, String.valueOf(timeout));
+        }
+    }
 }
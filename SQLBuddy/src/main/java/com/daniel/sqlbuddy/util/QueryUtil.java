@@ -16,6 +16,12 @@
 package com.daniel.sqlbuddy.util;
 
 import com.daniel.sqlbuddy.model.ConnectionProperties;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * This utility class provides functionality for creating database queries.
@@ -34,6 +40,84 @@ public class QueryUtil {
      */
     public static final String SELECT_ONE = "SELECT 1";
 
+    /**
+     * The session setting matching the plan cache used by SQL Server
+     * management tools
+     */
+    public static final String SET_ARITHABORT_ON = "SET ARITHABORT ON";
+
+    /**
+     * The leading keywords of data manipulation statements that return only
+     * an update count
+     */
+    public static final Set<String> DML_KEYWORDS = new HashSet<>(Arrays.asList(
+            "INSERT", "UPDATE", "DELETE", "MERGE", "REPLACE"));
+
+    /**
+     * The leading keywords of statements that only read data
+     */
+    public static final Set<String> READ_ONLY_KEYWORDS = new HashSet<>(Arrays.asList(
+            "SELECT", "WITH", "SHOW", "DESCRIBE", "DESC", "EXPLAIN"));
+
+    /**
+     * The leading keywords of statements that may change the state of the
+     * session, directly or from stored code
+     */
+    public static final Set<String> SESSION_KEYWORDS = new HashSet<>(Arrays.asList(
+            "SET", "USE", "DECLARE", "EXEC", "EXECUTE", "CALL", "BEGIN", "DO"));
+
+    /**
+     * The words that may join one SELECT to the next within a single query
+     */
+    private static final Set<String> SET_OPERATORS = new HashSet<>(Arrays.asList(
+            "UNION", "INTERSECT", "EXCEPT", "MINUS", "ALL", "DISTINCT"));
+
+    /**
+     * The words that may be followed by a parenthesis in a query without
+     * calling a function
+     */
+    private static final Set<String> PARENTHESIZED_KEYWORDS = new HashSet<>(Arrays.asList(
+            "SELECT", "FROM", "WHERE", "AND", "OR", "NOT", "IN", "EXISTS", "ANY", "SOME", "ALL", "AS", "ON",
+            "JOIN", "USING", "LATERAL", "APPLY", "OVER", "FILTER", "WITHIN", "GROUP", "BY", "HAVING", "VALUES",
+            "UNION", "INTERSECT", "EXCEPT", "MINUS", "DISTINCT", "CASE", "WHEN", "THEN", "ELSE", "LIKE",
+            "BETWEEN", "IS", "TOP", "LIMIT", "OFFSET", "FETCH", "PIVOT", "UNPIVOT", "WITH"));
+
+    /**
+     * The built-in functions that neither change anything nor return a
+     * different value when run again, along with the type names written with
+     * a size in a cast
+     */
+    private static final Set<String> PURE_FUNCTIONS = new HashSet<>(Arrays.asList(
+            "COUNT", "SUM", "MIN", "MAX", "AVG", "COALESCE", "NULLIF", "ISNULL", "IFNULL", "NVL", "CAST",
+            "CONVERT", "UPPER", "LOWER", "SUBSTRING", "SUBSTR", "TRIM", "LTRIM", "RTRIM", "LENGTH", "LEN",
+            "CONCAT", "ROUND", "ABS", "FLOOR", "CEILING", "CEIL", "ROW_NUMBER", "RANK", "DENSE_RANK",
+            "CHAR", "VARCHAR", "VARCHAR2", "NCHAR", "NVARCHAR", "DECIMAL", "NUMERIC", "NUMBER", "FLOAT"));
+
+    /**
+     * The pattern of the words that make a query write data, change the
+     * schema, run stored code, advance a sequence, or take locks
+     */
+    private static final Pattern WRITING_CLAUSE = Pattern.compile(
+            "\\b(INTO|UPDATE|INSERT|DELETE|MERGE|LOCK|UPDLOCK|XLOCK|HOLDLOCK|TABLOCKX"
+            + "|CREATE|ALTER|DROP|TRUNCATE|RENAME|GRANT|REVOKE|EXEC|EXECUTE|CALL"
+            + "|NEXTVAL|SETVAL|NEXT\\s+VALUE\\s+FOR|FOR\\s+(KEY\\s+)?SHARE)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * The pattern of the clauses that make a data manipulation statement
+     * return rows
+     */
+    private static final Pattern RETURNING_CLAUSE = Pattern.compile("\\b(RETURNING|OUTPUT)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * The pattern of the statements other than those led by a session keyword
+     * that change the state of the session
+     */
+    private static final Pattern SESSION_CLAUSE = Pattern.compile(
+            "^\\s*(ALTER\\s+SESSION|CREATE\\s+((GLOBAL|LOCAL)\\s+)?TEMP(ORARY)?\\b|CREATE\\s+TABLE\\s+#)",
+            Pattern.CASE_INSENSITIVE);
+
     /**
      * Private constructor - not called
      */
@@ -69,4 +153,223 @@ public class QueryUtil {
         }
         return query;
     }
+
+    /**
+     * This method returns the statements run on every new connection for the
+     * database type. Statements given in the session initialization property
+     * are used when present.
+     *
+     * @param properties the connection properties
+     * @return the session initialization statements
+     */
+    public static List<String> getSessionInitStatements(ConnectionProperties properties) {
+
+        List<String> statements = new ArrayList<>();
+        String sessionInitSql = properties.getProperty(ConnectionProperties.SESSION_INIT_SQL);
+        if (sessionInitSql == null) {
+            switch (properties.getProperty(ConnectionProperties.DATABASE_TYPE)) {
+                case ConnectionProperties.MS_SQL:
+                    sessionInitSql = SET_ARITHABORT_ON;
+                    break;
+                default:
+                    sessionInitSql = "";
+                    break;
+            }
+        }
+        for (String statement : sessionInitSql.split(";")) {
+            if (!statement.trim().isEmpty()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * This method returns the first keyword of the given statement in upper
+     * case, or an empty string if the statement does not begin with a word.
+     *
+     * @param statement the statement
+     * @return the first keyword
+     */
+    public static String getFirstKeyword(String statement) {
+        int start = 0;
+        while (start < statement.length() && Character.isWhitespace(statement.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return statement.substring(start, end).toUpperCase();
+    }
+
+    /**
+     * This method determines whether the given statement may be sent in a
+     * JDBC batch. Only data manipulation statements that return no rows
+     * qualify.
+     *
+     * @param statement the statement
+     * @return true if the statement may be batched, false otherwise
+     */
+    public static boolean isBatchableStatement(String statement) {
+        return DML_KEYWORDS.contains(getFirstKeyword(statement))
+                && !RETURNING_CLAUSE.matcher(statement).find();
+    }
+
+    /**
+     * This method determines whether the given statement only reads data.
+     * Queries that create tables, write files, lock rows with FOR UPDATE or
+     * FOR SHARE, advance sequences, or contain data manipulation are not
+     * read-only, and neither are statements that also change the schema,
+     * change privileges, or run stored code, such as a batch that starts with
+     * a query. Any word naming one of those clauses rules the statement out,
+     * even inside a literal. A call to any function other than the pure
+     * built-in functions rules it out as well, as the function may change
+     * data or return a different value each time.
+     *
+     * @param statement the statement
+     * @return true if the statement is read-only, false otherwise
+     */
+    public static boolean isReadOnlyStatement(String statement) {
+        return READ_ONLY_KEYWORDS.contains(getFirstKeyword(statement))
+                && !WRITING_CLAUSE.matcher(statement).find()
+                && !callsFunction(statement);
+    }
+
+    /**
+     * This method determines whether the given statement calls a function
+     * other than the pure built-in functions. Outside literals, quoted names
+     * and comments, any word followed by an opening parenthesis that is not a
+     * keyword counts as a call.
+     *
+     * @param statement the statement
+     * @return true if the statement calls a function that may not be pure,
+     * false otherwise
+     */
+    private static boolean callsFunction(String statement) {
+
+        int length = statement.length();
+        String previousWord = null;
+        int i = 0;
+        while (i < length) {
+            char c = statement.charAt(i);
+            if (c == '-' && i + 1 < length && statement.charAt(i + 1) == '-') {
+                int end = statement.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && statement.charAt(i + 1) == '*') {
+                int end = statement.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'' || c == '"' || c == '`' || c == '[') {
+                int end = statement.indexOf(c == '[' ? ']' : c, i + 1);
+                i = end < 0 ? length : end + 1;
+                previousWord = null;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i;
+                while (end < length && (Character.isLetterOrDigit(statement.charAt(end))
+                        || statement.charAt(end) == '_' || statement.charAt(end) == '$')) {
+                    end++;
+                }
+                previousWord = statement.substring(i, end).toUpperCase();
+                i = end;
+            } else {
+                if (c == '(' && previousWord != null && !PARENTHESIZED_KEYWORDS.contains(previousWord)
+                        && !PURE_FUNCTIONS.contains(previousWord)) {
+                    return true;
+                }
+                if (!Character.isWhitespace(c)) {
+                    previousWord = null;
+                }
+                i++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method determines whether the given statement holds a single query,
+     * so it returns at most one result set. Outside literals, quoted names,
+     * comments and parentheses, the statement may hold no semicolon before
+     * its end, and no SELECT after its first one other than those joined by
+     * a set operator. A batch of queries that the database runs as one
+     * statement, such as a SQL Server batch without semicolons, fails the
+     * test.
+     *
+     * @param statement the statement
+     * @return true if the statement holds one query, false otherwise
+     */
+    public static boolean isSingleQuery(String statement) {
+
+        int length = statement.length();
+        int depth = 0;
+        boolean selectSeen = false;
+        String previousWord = "";
+        int i = 0;
+        while (i < length) {
+            char c = statement.charAt(i);
+            if (c == '-' && i + 1 < length && statement.charAt(i + 1) == '-') {
+                int end = statement.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && statement.charAt(i + 1) == '*') {
+                int end = statement.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'' || c == '"' || c == '`' || c == '[') {
+                int end = statement.indexOf(c == '[' ? ']' : c, i + 1);
+                i = end < 0 ? length : end + 1;
+                previousWord = "";
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i;
+                while (end < length && (Character.isLetterOrDigit(statement.charAt(end))
+                        || statement.charAt(end) == '_')) {
+                    end++;
+                }
+                String word = statement.substring(i, end).toUpperCase();
+                if (depth == 0 && word.equals("SELECT")) {
+                    if (selectSeen && !SET_OPERATORS.contains(previousWord)) {
+                        return false;
+                    }
+                    selectSeen = true;
+                }
+                previousWord = word;
+                i = end;
+            } else {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth = Math.max(0, depth - 1);
+                } else if (c == ';' && depth == 0 && !statement.substring(i + 1).replace(";", "").trim().isEmpty()) {
+                    return false;
+                }
+                if (!Character.isWhitespace(c)) {
+                    previousWord = "";
+                }
+                i++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method determines whether the given statement may change the state
+     * of the session, such as a session variable, the current database, or a
+     * temporary table, in a way that cannot be reset when its connection goes
+     * back to the pool.
+     *
+     * @param statement the statement
+     * @return true if the statement may change the session, false otherwise
+     */
+    public static boolean isSessionStatement(String statement) {
+        return SESSION_KEYWORDS.contains(getFirstKeyword(statement))
+                || SESSION_CLAUSE.matcher(statement).find();
+    }
+
+    /**
+     * This method determines whether the given statement is a data
+     * manipulation statement.
+     *
+     * @param statement the statement
+     * @return true if the statement manipulates data, false otherwise
+     */
+    public static boolean isDataManipulationStatement(String statement) {
+        return DML_KEYWORDS.contains(getFirstKeyword(statement));
+    }
 }
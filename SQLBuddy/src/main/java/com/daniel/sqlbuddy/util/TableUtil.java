@@ -15,11 +15,21 @@
  */
 package com.daniel.sqlbuddy.util;
 
-import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import javax.swing.JTable;
-import javax.swing.table.DefaultTableColumnModel;
-import javax.swing.table.TableCellRenderer;
+import javax.swing.SwingWorker;
 import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
+import javax.swing.table.TableModel;
+import org.apache.logging.log4j.LogManager;
 
 /**
  * This utility class contains functionality to modify result table
@@ -29,31 +39,276 @@ import javax.swing.table.TableColumn;
  */
 public class TableUtil {
 
+    /**
+     * The number of rows measured from the start of a table
+     */
+    public static final int HEAD_ROWS = 50;
+
+    /**
+     * The number of rows measured from the end of a table
+     */
+    public static final int TAIL_ROWS = 50;
+
+    /**
+     * The number of equal ranges of the remaining rows a random row is
+     * measured from
+     */
+    public static final int SAMPLED_RANGES = 100;
+
+    /**
+     * The widest a column is made to fit its data, in pixels
+     */
+    public static final int MAX_COLUMN_WIDTH = 400;
+
+    /**
+     * The number of characters of a value measured, which is enough to pass
+     * the widest column width
+     */
+    private static final int MAX_MEASURED_CHARACTERS = 200;
+
+    /**
+     * The number of pixels added to the width of the widest text, for the
+     * border of the cell renderer and a small gap
+     */
+    private static final int CELL_PADDING = 4;
+
+    /**
+     * The number of column sets whose widths are remembered
+     */
+    private static final int REMEMBERED_COLUMN_SETS = 64;
+
+    /**
+     * The font metrics of the fonts tables have been shown in, used on the
+     * event dispatch thread
+     */
+    private static final Map<Font, FontMetrics> FONT_METRICS = new HashMap<>();
+
+    /**
+     * The widths chosen for recently shown column sets keyed by the column
+     * names, in least recently used order, used on the event dispatch thread
+     */
+    private static final Map<List<String>, int[]> COLUMN_WIDTHS
+            = new LinkedHashMap<List<String>, int[]>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, int[]> eldest) {
+            return size() > REMEMBERED_COLUMN_SETS;
+        }
+    };
+
     /**
      * This utility method adjusts the column widths of the given table to fit
-     * the largest data element in each column.
+     * the largest data element in each column, measured on a sample of the
+     * rows. This must be executed on the event dispatch thread.
      *
      * @param table the result table
      */
     public static void adjustTableColumnWidths(JTable table) {
+        adjustTableColumnWidths(table, false);
+    }
+
+    /**
+     * This utility method adjusts the column widths of the given table to fit
+     * the largest data element in each column, with the data width capped at
+     * MAX_COLUMN_WIDTH and never narrower than the header. The values of a
+     * bounded sample of rows are read here: the first and last rows and a
+     * random row from each of a number of equal ranges in between,
+     * or only the first rows when reading other rows would make the model
+     * load them. The text widths are measured on a background thread and
+     * applied when they are ready. A table whose column names match a column
+     * set shown recently is given the widths chosen then. This must be
+     * executed on the event dispatch thread.
+     *
+     * @param table the result table
+     * @param headOnly true if only the first rows may be read
+     */
+    public static void adjustTableColumnWidths(JTable table, boolean headOnly) {
 
         table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        TableModel model = table.getModel();
+        if (model.getRowCount() == 0 || model.getColumnCount() == 0) {
+            return;
+        }
+        String[] names = new String[model.getColumnCount()];
+        for (int column = 0; column < names.length; column++) {
+            names[column] = model.getColumnName(column);
+        }
+        List<String> columnSet = Arrays.asList(names);
+        int[] widths = COLUMN_WIDTHS.get(columnSet);
+        if (widths != null) {
+            applyWidths(table, widths);
+            return;
+        }
 
-        for (int columnCount = 0; columnCount < table.getColumnCount(); columnCount++) {
-            DefaultTableColumnModel columnModel = (DefaultTableColumnModel) table.getColumnModel();
-            TableColumn column = columnModel.getColumn(columnCount);
-            
+        int[] rows = sampleRows(model.getRowCount(), headOnly);
+        String[][] texts = new String[names.length][rows.length];
+        for (int column = 0; column < names.length; column++) {
+            for (int index = 0; index < rows.length; index++) {
+                texts[column][index] = toText(model.getValueAt(rows[index], column));
+            }
+        }
+        int[] initialWidths = new int[names.length];
+        for (int column = 0; column < names.length; column++) {
             // preferred width is wide enough for table header here
-            int preferredColumnWidth = column.getPreferredWidth();
-
-            // if data is wider than the header, the preferred width is expanded
-            for (int rowCount = 0; rowCount < table.getRowCount(); rowCount++) {
-                TableCellRenderer renderer = table.getCellRenderer(rowCount, columnCount);
-                Component component = renderer.getTableCellRendererComponent(table, 
-                        table.getValueAt(rowCount, columnCount), false, false, rowCount, columnCount);
-                preferredColumnWidth = Math.max(preferredColumnWidth, component.getPreferredSize().width);
+            initialWidths[column] = table.getColumnModel().getColumn(column).getPreferredWidth();
+        }
+        FontMetrics metrics = FONT_METRICS.computeIfAbsent(table.getFont(), table::getFontMetrics);
+        new WidthWorker(table, columnSet, texts, initialWidths, metrics).execute();
+    }
+
+    /**
+     * This method chooses the rows measured of a table with the given number
+     * of rows.
+     *
+     * @param rowCount the number of rows
+     * @param headOnly true if only the first rows may be chosen
+     * @return the row indexes in ascending order
+     */
+    private static int[] sampleRows(int rowCount, boolean headOnly) {
+
+        if (headOnly || rowCount <= HEAD_ROWS + TAIL_ROWS + SAMPLED_RANGES) {
+            int[] rows = new int[headOnly ? Math.min(rowCount, HEAD_ROWS) : rowCount];
+            for (int row = 0; row < rows.length; row++) {
+                rows[row] = row;
+            }
+            return rows;
+        }
+        int[] rows = new int[HEAD_ROWS + SAMPLED_RANGES + TAIL_ROWS];
+        int index = 0;
+        for (int row = 0; row < HEAD_ROWS; row++) {
+            rows[index++] = row;
+        }
+        int middleRows = rowCount - HEAD_ROWS - TAIL_ROWS;
+        for (int range = 0; range < SAMPLED_RANGES; range++) {
+            int first = HEAD_ROWS + (int) ((long) middleRows * range / SAMPLED_RANGES);
+            int end = HEAD_ROWS + (int) ((long) middleRows * (range + 1) / SAMPLED_RANGES);
+            rows[index++] = ThreadLocalRandom.current().nextInt(first, end);
+        }
+        for (int row = rowCount - TAIL_ROWS; row < rowCount; row++) {
+            rows[index++] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * This method returns the text shown for the given value, shortened to
+     * the number of characters that are measured.
+     *
+     * @param value the cell value
+     * @return the text
+     */
+    private static String toText(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        return text.length() > MAX_MEASURED_CHARACTERS ? text.substring(0, MAX_MEASURED_CHARACTERS) : text;
+    }
+
+    /**
+     * This method sets the preferred widths of the columns of the given
+     * table.
+     *
+     * @param table the result table
+     * @param widths the width of each column
+     */
+    private static void applyWidths(JTable table, int[] widths) {
+        TableColumnModel columnModel = table.getColumnModel();
+        for (int column = 0; column < widths.length && column < columnModel.getColumnCount(); column++) {
+            TableColumn tableColumn = columnModel.getColumn(column);
+            tableColumn.setPreferredWidth(widths[column]);
+        }
+    }
+
+    /**
+     * This SwingWorker measures the sampled text of each column and then sets
+     * the column widths of the table.
+     */
+    private static class WidthWorker extends SwingWorker<int[], Object> {
+
+        /**
+         * The result table
+         */
+        private final JTable table;
+
+        /**
+         * The column names of the table
+         */
+        private final List<String> columnSet;
+
+        /**
+         * The sampled text of each column
+         */
+        private final String[][] texts;
+
+        /**
+         * The width of each column before its data is measured
+         */
+        private final int[] initialWidths;
+
+        /**
+         * The font metrics of the table font
+         */
+        private final FontMetrics metrics;
+
+        /**
+         * This constructor sets the table and the text to measure.
+         *
+         * @param table the result table
+         * @param columnSet the column names of the table
+         * @param texts the sampled text of each column
+         * @param initialWidths the width of each column before its data is
+         * measured
+         * @param metrics the font metrics of the table font
+         */
+        private WidthWorker(JTable table, List<String> columnSet, String[][] texts, int[] initialWidths,
+                FontMetrics metrics) {
+            this.table = table;
+            this.columnSet = columnSet;
+            this.texts = texts;
+            this.initialWidths = initialWidths;
+            this.metrics = metrics;
+        }
+
+        /**
+         * This method measures the widest text of each column. This is not
+         * executed on the event dispatch thread.
+         *
+         * @return the width of each column
+         */
+        @Override
+        protected int[] doInBackground() {
+
+            int[] widths = new int[texts.length];
+            for (int column = 0; column < texts.length; column++) {
+                int dataWidth = 0;
+                for (String text : texts[column]) {
+                    dataWidth = Math.max(dataWidth, metrics.stringWidth(text) + CELL_PADDING);
+                    if (dataWidth >= MAX_COLUMN_WIDTH) {
+                        break;
+                    }
+                }
+                // if data is wider than the header, the preferred width is expanded
+                widths[column] = Math.max(initialWidths[column], Math.min(dataWidth, MAX_COLUMN_WIDTH));
+            }
+            return widths;
+        }
+
+        /**
+         * This method sets the measured column widths and remembers them for
+         * the column set. This is executed on the event dispatch thread.
+         */
+        @Override
+        protected void done() {
+            try {
+                int[] widths = get();
+                COLUMN_WIDTHS.put(columnSet, widths);
+                applyWidths(table, widths);
+            } catch (InterruptedException | ExecutionException ex) {
+                LogManager.getLogger(TableUtil.class).error("Exception occurred while measuring column widths.", ex);
             }
-            column.setPreferredWidth(preferredColumnWidth + 2);
         }
     }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import com.daniel.sqlbuddy.model.ConnectionProperties;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableModel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests that only the last query of a run keeps a cursor open on
+ * its connection, so no later statement of the run is executed on the
+ * connection while a cursor is read.
+ *
+ * @author Bryan Daniel
+ */
+public class ScriptCursorTest {
+
+    /**
+     * The number of rows returned by every query
+     */
+    private static final int ROW_COUNT = 25;
+
+    /**
+     * The number of rows in a page, so the rows span several pages
+     */
+    private static final int PAGE_SIZE = 10;
+
+    /**
+     * The number of milliseconds allowed for reading the rows of a result
+     */
+    private static final long READ_TIMEOUT_MILLISECONDS = 10000L;
+
+    /**
+     * The stub driver
+     */
+    private StubDriver driver;
+
+    /**
+     * The connection properties
+     */
+    private ConnectionProperties properties;
+
+    /**
+     * The results of the test
+     */
+    private List<TableModel> models;
+
+    /**
+     * This method registers the stub driver and sets up connection properties
+     * that read results through cursors.
+     *
+     * @throws SQLException if the driver cannot be registered
+     */
+    @Before
+    public void setUp() throws SQLException {
+        driver = StubDriver.register(ROW_COUNT);
+        properties = new ConnectionProperties(ConnectionProperties.MS_SQL, "/nonexistent/stub-driver.jar",
+                "127.0.0.1", "stub", "1433", "user", "password");
+        properties.setProperty(ConnectionProperties.PAGE_SIZE, String.valueOf(PAGE_SIZE));
+        properties.setProperty(ConnectionProperties.FETCH_STRATEGY, ConnectionProperties.FETCH_DRIVER);
+        models = new ArrayList<>();
+    }
+
+    /**
+     * This method closes the results and the pools and deregisters the stub
+     * driver.
+     *
+     * @throws Exception if cleaning up fails
+     */
+    @After
+    public void tearDown() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            for (TableModel model : models) {
+                if (model instanceof Closeable) {
+                    try {
+                        ((Closeable) model).close();
+                    } catch (IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            }
+        });
+        ConnectionPoolManager.getInstance().closePools(properties);
+        driver.deregister();
+    }
+
+    /**
+     * This test runs two queries whose results span several pages. The
+     * result of the first must be read to its end before the second runs,
+     * and only the result of the second may be read through a cursor.
+     *
+     * @throws Exception if the test cannot be run
+     */
+    @Test
+    public void testOnlyLastQueryKeepsCursor() throws Exception {
+
+        ArrayList<Object> results = new CommonDataAccessor().executeInput(
+                "SELECT id FROM t; SELECT id FROM t;", properties);
+        for (Object result : results) {
+            if (result instanceof TableModel) {
+                models.add((TableModel) result);
+            }
+        }
+
+        assertEquals("results " + results, 2, models.size());
+        assertFalse("first result is a cursor", models.get(0) instanceof CursorTableModel);
+        assertTrue("last result is a cursor", models.get(1) instanceof CursorTableModel);
+        assertEquals(expectedRows(1), readColumn(models.get(0)));
+        assertEquals(expectedRows(1), readColumn(models.get(1)));
+        assertEquals("queries run", 2, driver.getQueryCount());
+    }
+
+    /**
+     * This method returns the rows the stub driver returns from the given
+     * value on.
+     *
+     * @param first the value of the first row
+     * @return the row values
+     */
+    private static List<Object> expectedRows(long first) {
+        List<Object> rows = new ArrayList<>();
+        for (int row = 0; row < ROW_COUNT; row++) {
+            rows.add(first + row);
+        }
+        return rows;
+    }
+
+    /**
+     * This method reads the first column of every row of the given result on
+     * the event dispatch thread, as a table would, waiting for the pages of a
+     * cursor to be fetched.
+     *
+     * @param model the result
+     * @return the values of the first column
+     * @throws Exception if the rows cannot be read in time
+     */
+    private static List<Object> readColumn(TableModel model) throws Exception {
+
+        long deadline = System.currentTimeMillis() + READ_TIMEOUT_MILLISECONDS;
+        while (true) {
+            List<Object> values = new ArrayList<>();
+            boolean[] complete = {false};
+            SwingUtilities.invokeAndWait(() -> {
+                for (int row = 0; row < model.getRowCount(); row++) {
+                    values.add(model.getValueAt(row, 0));
+                }
+                complete[0] = !(model instanceof CursorTableModel) || ((CursorTableModel) model).isComplete();
+            });
+            if (complete[0] && !values.contains(null)) {
+                return values;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("The rows were not read: " + values);
+            }
+            Thread.sleep(20L);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.data;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * This driver stands in for a SQL Server driver in tests. Every query returns
+ * a single BIGINT column named id holding a fixed number of rows, numbered
+ * from one past the first bound parameter, or from one when nothing is bound.
+ * As with a real driver, running a statement again or closing it closes the
+ * result set it returned, and reading a closed result set fails.
+ *
+ * @author Bryan Daniel
+ */
+public class StubDriver implements Driver {
+
+    /**
+     * The URL prefix accepted by the driver
+     */
+    public static final String URL_PREFIX = "jdbc:sqlserver:";
+
+    /**
+     * The number of rows returned by every query
+     */
+    private final int rowCount;
+
+    /**
+     * The number of queries run
+     */
+    private final AtomicInteger queryCount;
+
+    /**
+     * This constructor sets the number of rows returned by every query.
+     *
+     * @param rowCount the number of rows
+     */
+    public StubDriver(int rowCount) {
+        this.rowCount = rowCount;
+        queryCount = new AtomicInteger();
+    }
+
+    /**
+     * This method creates a driver returning the given number of rows and
+     * registers it with the DriverManager.
+     *
+     * @param rowCount the number of rows
+     * @return the registered driver
+     * @throws SQLException if the driver cannot be registered
+     */
+    public static StubDriver register(int rowCount) throws SQLException {
+        StubDriver driver = new StubDriver(rowCount);
+        DriverManager.registerDriver(driver);
+        return driver;
+    }
+
+    /**
+     * This method deregisters the driver from the DriverManager.
+     *
+     * @throws SQLException if the driver cannot be deregistered
+     */
+    public void deregister() throws SQLException {
+        DriverManager.deregisterDriver(this);
+    }
+
+    /**
+     * Get the number of queries run
+     *
+     * @return the number of queries run
+     */
+    public int getQueryCount() {
+        return queryCount.get();
+    }
+
+    /**
+     * This method opens a stub connection.
+     *
+     * @param url the database URL
+     * @param info the connection information
+     * @return the connection, or null if the URL is not accepted
+     */
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(StubDriver.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            closed[0] = true;
+                            return null;
+                        case "isClosed":
+                            return closed[0];
+                        case "isValid":
+                            return !closed[0];
+                        case "getAutoCommit":
+                            return true;
+                        case "createStatement":
+                            return createStatement(Statement.class);
+                        case "prepareStatement":
+                            return createStatement(PreparedStatement.class);
+                        default:
+                            return defaultValue(method);
+                    }
+                });
+    }
+
+    /**
+     * This method creates a stub statement of the given interface.
+     *
+     * @param type the Statement or PreparedStatement interface
+     * @return the statement
+     */
+    private Object createStatement(Class<?> type) {
+        Object[] parameter = {0L};
+        boolean[] closed = {false};
+        StubResults[] results = {null};
+        return Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "execute":
+                        case "executeQuery":
+                            if (closed[0]) {
+                                throw new SQLException("The statement is closed.");
+                            }
+                            if (results[0] != null) {
+                                results[0].closed = true;
+                            }
+                            String sql = args == null ? "" : (String) args[0];
+                            if (!sql.trim().isEmpty() && !sql.trim().toUpperCase().startsWith("SELECT")) {
+                                results[0] = null;
+                                return method.getName().equals("execute") ? false : null;
+                            }
+                            queryCount.incrementAndGet();
+                            long first = ((Number) parameter[0]).longValue() + 1;
+                            results[0] = new StubResults(first, rowCount);
+                            Object resultSet = results[0].createResultSet();
+                            return method.getName().equals("execute") ? true : resultSet;
+                        case "getResultSet":
+                            return results[0] == null ? null : results[0].resultSet;
+                        case "getUpdateCount":
+                            return -1;
+                        case "getMoreResults":
+                            if (results[0] != null) {
+                                results[0].closed = true;
+                                results[0] = null;
+                            }
+                            return false;
+                        case "setObject":
+                            parameter[0] = args[1];
+                            return null;
+                        case "close":
+                            closed[0] = true;
+                            if (results[0] != null) {
+                                results[0].closed = true;
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed[0];
+                        default:
+                            return defaultValue(method);
+                    }
+                });
+    }
+
+    /**
+     * This method returns the value a stub method returns when it does
+     * nothing.
+     *
+     * @param method the called method
+     * @return the default value of the return type
+     */
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    /**
+     * This method determines whether the driver accepts the given URL.
+     *
+     * @param url the database URL
+     * @return true if the URL is a SQL Server URL, false otherwise
+     */
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    /**
+     * This method returns no driver properties.
+     *
+     * @param url the database URL
+     * @param info the connection information
+     * @return an empty array
+     */
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    /**
+     * Get the major version
+     *
+     * @return the major version
+     */
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    /**
+     * Get the minor version
+     *
+     * @return the minor version
+     */
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    /**
+     * This method reports that the driver is not JDBC compliant.
+     *
+     * @return false
+     */
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    /**
+     * Get the parent logger
+     *
+     * @return null, as the driver does not log
+     */
+    @Override
+    public Logger getParentLogger() {
+        return null;
+    }
+
+    /**
+     * This class holds the rows of one executed query.
+     */
+    private static class StubResults {
+
+        /**
+         * The value of the first row
+         */
+        private final long first;
+
+        /**
+         * The number of rows
+         */
+        private final int rowCount;
+
+        /**
+         * The number of rows the cursor has moved to
+         */
+        private int row;
+
+        /**
+         * Indicates the result set was closed
+         */
+        private volatile boolean closed;
+
+        /**
+         * The result set reading the rows
+         */
+        private Object resultSet;
+
+        /**
+         * This constructor sets the rows of the query.
+         *
+         * @param first the value of the first row
+         * @param rowCount the number of rows
+         */
+        private StubResults(long first, int rowCount) {
+            this.first = first;
+            this.rowCount = rowCount;
+        }
+
+        /**
+         * This method creates the result set reading the rows.
+         *
+         * @return the result set
+         */
+        private Object createResultSet() {
+            ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                    StubDriver.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getColumnCount":
+                                return 1;
+                            case "getColumnName":
+                            case "getColumnLabel":
+                                return "id";
+                            case "getColumnType":
+                                return Types.BIGINT;
+                            case "isSigned":
+                                return true;
+                            default:
+                                return defaultValue(method);
+                        }
+                    });
+            resultSet = Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        if (closed && !method.getName().equals("close") && !method.getName().equals("isClosed")) {
+                            throw new SQLException("The result set is closed.");
+                        }
+                        switch (method.getName()) {
+                            case "next":
+                                return ++row <= rowCount;
+                            case "getMetaData":
+                                return metaData;
+                            case "getLong":
+                            case "getObject":
+                                return first + row - 1;
+                            case "close":
+                                closed = true;
+                                return null;
+                            case "isClosed":
+                                return closed;
+                            default:
+                                return defaultValue(method);
+                        }
+                    });
+            return resultSet;
+        }
+    }
+}
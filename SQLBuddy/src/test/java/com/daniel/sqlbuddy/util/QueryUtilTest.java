@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.sqlbuddy.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This class tests the classification of statements as read-only, which
+ * decides whether they may run in parallel or be served from the result
+ * cache.
+ *
+ * @author Bryan Daniel
+ */
+public class QueryUtilTest {
+
+    /**
+     * This test checks that plain queries and queries using pure built-in
+     * functions and parenthesized clauses are read-only.
+     */
+    @Test
+    public void testQueriesAreReadOnly() {
+        assertTrue(QueryUtil.isReadOnlyStatement("SELECT * FROM t"));
+        assertTrue(QueryUtil.isReadOnlyStatement("select count(*), max(price) from t group by name"));
+        assertTrue(QueryUtil.isReadOnlyStatement("SELECT * FROM t WHERE id IN (SELECT id FROM u)"));
+        assertTrue(QueryUtil.isReadOnlyStatement("SELECT CAST(price AS DECIMAL(10, 2)) FROM t"));
+        assertTrue(QueryUtil.isReadOnlyStatement("WITH u AS (SELECT id FROM t) SELECT * FROM u"));
+        assertTrue(QueryUtil.isReadOnlyStatement("SELECT 'f(x)' AS \"g(y)\" FROM t -- h(z)"));
+    }
+
+    /**
+     * This test checks that a query locking rows with FOR UPDATE is not
+     * read-only.
+     */
+    @Test
+    public void testForUpdateIsNotReadOnly() {
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT * FROM t WHERE id = 1 FOR UPDATE"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT * FROM t FOR NO KEY UPDATE"));
+    }
+
+    /**
+     * This test checks that a query locking rows with FOR SHARE is not
+     * read-only.
+     */
+    @Test
+    public void testForShareIsNotReadOnly() {
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT * FROM t WHERE id = 1 FOR SHARE"));
+        assertFalse(QueryUtil.isReadOnlyStatement("select * from t for key share"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT * FROM t LOCK IN SHARE MODE"));
+    }
+
+    /**
+     * This test checks that queries advancing or setting a sequence are not
+     * read-only, whatever the database syntax.
+     */
+    @Test
+    public void testSequenceFunctionsAreNotReadOnly() {
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT nextval('s')"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT setval('s', 42)"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT s.NEXTVAL FROM dual"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT NEXT VALUE FOR s"));
+    }
+
+    /**
+     * This test checks that queries calling a function that is not a pure
+     * built-in function are not read-only, as the function may change data
+     * or return a different value each time.
+     */
+    @Test
+    public void testFunctionCallsAreNotReadOnly() {
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT audit_access(42)"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT dbo.issue_ticket(id) FROM t"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT NOW()"));
+        assertFalse(QueryUtil.isReadOnlyStatement("SELECT * FROM t ORDER BY RAND()"));
+    }
+}